@@ -0,0 +1,34 @@
+package com.pradumcodes.notes.config;
+
+import com.pradumcodes.notes.service.NoteIndex;
+import com.pradumcodes.notes.service.NoteService;
+import com.pradumcodes.notes.store.NoteLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Configuration
+public class NoteStoreConfiguration {
+
+    // close() forces dirty pages of the mapped segments to disk on shutdown
+    @Bean(destroyMethod = "close")
+    public NoteLog noteLog(@Value("${notes.store.dir}") Path dir,
+                           @Value("${notes.store.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${notes.store.sync-writes:false}") boolean syncWrites) {
+        return new NoteLog(dir, Math.toIntExact(segmentSize.toBytes()), syncWrites);
+    }
+
+    @Bean
+    public NoteIndex noteIndex() {
+        return new NoteIndex();
+    }
+
+    // recovers the log and rebuilds the index before the web server accepts requests
+    @Bean
+    public NoteService noteService(NoteLog noteLog, NoteIndex noteIndex) {
+        return new NoteService(noteLog, noteIndex);
+    }
+}
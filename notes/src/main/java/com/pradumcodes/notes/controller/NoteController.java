@@ -0,0 +1,60 @@
+package com.pradumcodes.notes.controller;
+
+import com.pradumcodes.notes.dto.NoteRequest;
+import com.pradumcodes.notes.dto.NoteSummary;
+import com.pradumcodes.notes.model.Note;
+import com.pradumcodes.notes.service.NoteService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/notes")
+public class NoteController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final NoteService noteService;
+
+    public NoteController(NoteService noteService) {
+        this.noteService = noteService;
+    }
+
+    @GetMapping
+    public List<NoteSummary> listNotes(@RequestParam(defaultValue = "50") int limit) {
+        return noteService.findRecent(clamp(limit));
+    }
+
+    @GetMapping("/search")
+    public List<NoteSummary> searchNotes(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return noteService.search(q, clamp(limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Note> getNote(@PathVariable long id) {
+        return ResponseEntity.of(noteService.findById(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<Note> createNote(@RequestBody @Valid NoteRequest request) {
+        Note note = noteService.create(request.getTitle(), request.getContent());
+        return ResponseEntity.created(URI.create("/notes/" + note.getId())).body(note);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Note> updateNote(@PathVariable long id, @RequestBody @Valid NoteRequest request) {
+        return ResponseEntity.of(noteService.update(id, request.getTitle(), request.getContent()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteNote(@PathVariable long id) {
+        return noteService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,31 @@
+package com.pradumcodes.notes.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class NoteRequest {
+    @NotBlank
+    @Size(max = 200)
+    private String title;
+
+    @NotNull
+    @Size(max = 100_000)
+    private String content;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
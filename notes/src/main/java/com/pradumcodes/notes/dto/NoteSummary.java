@@ -0,0 +1,26 @@
+package com.pradumcodes.notes.dto;
+
+// listing / search result entry; score is null for plain listings
+public class NoteSummary {
+    private final long id;
+    private final String title;
+    private final Double score;
+
+    public NoteSummary(long id, String title, Double score) {
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pradumcodes.notes.model;
+
+import java.time.Instant;
+
+public class Note {
+
+    private final long id;
+    private final String title;
+    private final String content;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+
+    public Note(long id, String title, String content, Instant createdAt, Instant updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
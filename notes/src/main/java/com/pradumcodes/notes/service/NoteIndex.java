@@ -0,0 +1,161 @@
+package com.pradumcodes.notes.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over note titles and contents. Every query term must appear in a note;
+ * matches are ranked by tf-idf. Updating a note only touches the postings of its own terms.
+ */
+public class NoteIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>(); // term -> note id -> term frequency
+    private final Map<Long, String[]> termsByNote = new HashMap<>();          // forward index, for removal
+
+    public record Hit(long id, double score) {
+    }
+
+    public void put(long id, String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        countTerms(title, frequencies);
+        countTerms(content, frequencies);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(id, term.getValue());
+            }
+            termsByNote.put(id, frequencies.keySet().toArray(String[]::new));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<String, Map<Long, Integer>>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(Map.entry(term, list));
+            }
+            // drive the intersection from the rarest term
+            lists.sort(Comparator.comparingInt(e -> e.getValue().size()));
+
+            double documents = termsByNote.size();
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                idf[i] = Math.log(1 + documents / lists.get(i).getValue().size());
+            }
+
+            // min-heap of the best `limit` hits so far
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            for (Map.Entry<Long, Integer> candidate : lists.get(0).getValue().entrySet()) {
+                long id = candidate.getKey();
+                double score = candidate.getValue() * idf[0];
+                boolean inAll = true;
+                for (int i = 1; i < lists.size() && inAll; i++) {
+                    Integer tf = lists.get(i).getValue().get(id);
+                    if (tf == null) {
+                        inAll = false;
+                    } else {
+                        score += tf * idf[i];
+                    }
+                }
+                if (!inAll) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Hit(id, score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Hit(id, score));
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByNote.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        String[] terms = termsByNote.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void countTerms(String text, Map<String, Integer> frequencies) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+    }
+
+    // lower-cased runs of letters/digits, in order, duplicates kept
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
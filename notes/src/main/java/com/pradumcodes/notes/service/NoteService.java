@@ -0,0 +1,270 @@
+package com.pradumcodes.notes.service;
+
+import com.pradumcodes.notes.dto.NoteSummary;
+import com.pradumcodes.notes.model.Note;
+import com.pradumcodes.notes.store.NoteLog;
+import com.pradumcodes.notes.store.NoteRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Notes CRUD and search on top of the {@link NoteLog} (durable state) and {@link NoteIndex} (full-text).
+ * Only the log location of each live note is kept in memory; note bodies are read from the mapped log.
+ *
+ * <p>Every overwrite or delete leaves dead bytes behind in the log. The live bytes of each segment are tracked,
+ * and whenever the log rolls to a new segment, sealed segments that are mostly dead are compacted: their live
+ * notes and still needed tombstones are copied to the head of the log and the segment file is deleted.
+ * A tombstone is needed while a segment that may hold a PUT of its note still exists; it counts as live
+ * until then and is dropped afterwards.
+ */
+public class NoteService {
+
+    // a sealed segment is compacted once less than this share of it is still live
+    private static final double COMPACT_BELOW_LIVE_RATIO = 0.5;
+
+    // where the latest version of a live note sits in the log; older versions lie in firstSegment or later
+    private record NoteRef(long location, int size, long createdAt, int firstSegment) {
+    }
+
+    // the delete record of a note whose PUTs may still lie in segments firstPutSegment..lastPutSegment
+    private record Tombstone(long location, int size, int firstPutSegment, int lastPutSegment) {
+    }
+
+    private final NoteLog log;
+    private final NoteIndex index;
+    private final NavigableMap<Long, NoteRef> notes = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+    private final Map<Integer, Long> liveBytes = new HashMap<>();   // per segment, guarded by writeLock
+    private final Map<Long, Tombstone> tombstones = new HashMap<>(); // by note id, guarded by writeLock
+    private long nextId;
+    private int activeSegment;
+
+    public NoteService(NoteLog log, NoteIndex index) {
+        this.log = log;
+        this.index = index;
+        recover();
+    }
+
+    /*
+     * One sequential pass over the log keeps only the last record per id (header decode only), then just the
+     * surviving notes are decoded and indexed, so overwritten and deleted versions cost almost nothing.
+     */
+    private void recover() {
+        Map<Long, Long> lastPut = new HashMap<>();
+        Map<Long, Integer> firstPutSegment = new HashMap<>();
+        Map<Long, Long> deleted = new HashMap<>();
+        long[] maxId = {0};
+        log.recover((location, type, id) -> {
+            maxId[0] = Math.max(maxId[0], id);
+            if (type == NoteLog.PUT) {
+                firstPutSegment.putIfAbsent(id, NoteLog.segmentOf(location));
+                lastPut.put(id, location);
+            } else {
+                deleted.put(id, location); // ids are never reused, so no PUT follows
+            }
+        });
+        // ids of deleted notes are never handed out again
+        nextId = maxId[0] + 1;
+        for (Map.Entry<Long, Long> entry : lastPut.entrySet()) {
+            if (!deleted.containsKey(entry.getKey())) {
+                NoteRecord record = log.read(entry.getValue());
+                index.put(record.id(), record.title(), record.content());
+                put(record.id(), entry.getValue(), record.createdAt(), firstPutSegment.get(record.id()));
+            }
+        }
+        for (Map.Entry<Long, Long> entry : deleted.entrySet()) {
+            Long put = lastPut.get(entry.getKey());
+            // no PUT left at all: an empty range, kept only if it is the highest id
+            track(entry.getKey(), entry.getValue(), put == null ? Integer.MAX_VALUE : firstPutSegment.get(entry.getKey()),
+                    put == null ? -1 : NoteLog.segmentOf(put));
+        }
+        compact();
+    }
+
+    public Note create(String title, String content) {
+        synchronized (writeLock) {
+            long id = nextId++;
+            long now = System.currentTimeMillis();
+            long location = log.append(NoteLog.PUT, id, now, now, title, content);
+            index.put(id, title, content);
+            put(id, location, now, NoteLog.segmentOf(location));
+            compactIfRolled();
+            return new Note(id, title, content, Instant.ofEpochMilli(now), Instant.ofEpochMilli(now));
+        }
+    }
+
+    public Optional<Note> update(long id, String title, String content) {
+        synchronized (writeLock) {
+            NoteRef ref = notes.get(id);
+            if (ref == null) {
+                return Optional.empty();
+            }
+            long now = System.currentTimeMillis();
+            long location = log.append(NoteLog.PUT, id, ref.createdAt(), now, title, content);
+            index.put(id, title, content);
+            put(id, location, ref.createdAt(), ref.firstSegment());
+            compactIfRolled();
+            return Optional.of(new Note(id, title, content, Instant.ofEpochMilli(ref.createdAt()), Instant.ofEpochMilli(now)));
+        }
+    }
+
+    public boolean delete(long id) {
+        synchronized (writeLock) {
+            NoteRef ref = notes.get(id);
+            if (ref == null) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            long location = log.append(NoteLog.DELETE, id, now, now, "", "");
+            index.remove(id);
+            notes.remove(id);
+            liveBytes.merge(NoteLog.segmentOf(ref.location()), (long) -ref.size(), Long::sum);
+            track(id, location, ref.firstSegment(), NoteLog.segmentOf(ref.location()));
+            compactIfRolled();
+            return true;
+        }
+    }
+
+    public Optional<Note> findById(long id) {
+        for (NoteRef ref = notes.get(id); ref != null; ref = notes.get(id)) {
+            NoteRecord record = log.read(ref.location());
+            if (record != null) {
+                return Optional.of(new Note(record.id(), record.title(), record.content(),
+                        Instant.ofEpochMilli(record.createdAt()), Instant.ofEpochMilli(record.updatedAt())));
+            }
+            // compaction moved the note and deleted the segment we looked in
+        }
+        return Optional.empty();
+    }
+
+    // newest first (ids grow monotonically)
+    public List<NoteSummary> findRecent(int limit) {
+        List<NoteSummary> result = new ArrayList<>(Math.min(limit, notes.size()));
+        for (Map.Entry<Long, NoteRef> entry : notes.descendingMap().entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            String title = title(entry.getKey(), entry.getValue());
+            if (title != null) {
+                result.add(new NoteSummary(entry.getKey(), title, null));
+            }
+        }
+        return result;
+    }
+
+    public List<NoteSummary> search(String query, int limit) {
+        List<NoteSummary> result = new ArrayList<>();
+        for (NoteIndex.Hit hit : index.search(query, limit)) {
+            String title = title(hit.id(), notes.get(hit.id()));
+            if (title != null) { // null: deleted between the index lookup and now
+                result.add(new NoteSummary(hit.id(), title, hit.score()));
+            }
+        }
+        return result;
+    }
+
+    public int count() {
+        return notes.size();
+    }
+
+    /**
+     * Compacts every sealed segment whose live share is below {@value #COMPACT_BELOW_LIVE_RATIO}: live notes and
+     * needed tombstones are copied to the head of the log, then the segment is deleted. Runs on its own after
+     * each segment roll.
+     */
+    public void compact() {
+        synchronized (writeLock) {
+            dropObsoleteTombstones();
+            for (int segment : log.sealedSegments()) {
+                if (liveBytes.getOrDefault(segment, 0L) < log.segmentCapacity(segment) * COMPACT_BELOW_LIVE_RATIO) {
+                    compact(segment);
+                }
+            }
+            activeSegment = log.activeSegment();
+        }
+    }
+
+    private void compact(int segment) {
+        log.scan(segment, (location, type, id) -> {
+            if (type == NoteLog.PUT) {
+                NoteRef ref = notes.get(id);
+                if (ref != null && ref.location() == location) {
+                    put(id, log.copy(location), ref.createdAt(), ref.firstSegment());
+                }
+                return;
+            }
+            Tombstone tombstone = tombstones.get(id);
+            if (tombstone == null || tombstone.location() != location) {
+                return; // already obsolete, or an older duplicate left by an interrupted compaction
+            }
+            tombstones.remove(id);
+            // PUTs in this segment go away with it
+            if (needed(id, tombstone, segment - 1)) {
+                track(id, log.copy(location), tombstone.firstPutSegment(), tombstone.lastPutSegment());
+            }
+        });
+        liveBytes.remove(segment);
+        log.deleteSegment(segment);
+    }
+
+    private void compactIfRolled() {
+        if (log.activeSegment() != activeSegment) {
+            compact();
+        }
+    }
+
+    /*
+     * A tombstone only hides PUTs that lie before it in the log. Once every segment that may hold a PUT of its
+     * note is gone, it is dead weight, except the one for the highest id ever handed out: recovery derives the
+     * next id from it.
+     */
+    private boolean needed(long id, Tombstone tombstone, int lastExistingPutSegment) {
+        return id == nextId - 1 || log.hasSegmentBetween(tombstone.firstPutSegment(),
+                Math.min(tombstone.lastPutSegment(), lastExistingPutSegment));
+    }
+
+    private void dropObsoleteTombstones() {
+        tombstones.entrySet().removeIf(entry -> {
+            Tombstone tombstone = entry.getValue();
+            if (needed(entry.getKey(), tombstone, Integer.MAX_VALUE)) {
+                return false;
+            }
+            liveBytes.merge(NoteLog.segmentOf(tombstone.location()), (long) -tombstone.size(), Long::sum);
+            return true;
+        });
+    }
+
+    private void track(long id, long location, int firstPutSegment, int lastPutSegment) {
+        Tombstone tombstone = new Tombstone(location, log.recordSize(location), firstPutSegment, lastPutSegment);
+        tombstones.put(id, tombstone);
+        liveBytes.merge(NoteLog.segmentOf(location), (long) tombstone.size(), Long::sum);
+    }
+
+    // points the note at its new record and moves its bytes from the old segment's live count to the new one's
+    private void put(long id, long location, long createdAt, int firstSegment) {
+        NoteRef ref = new NoteRef(location, log.recordSize(location), createdAt, firstSegment);
+        NoteRef old = notes.put(id, ref);
+        if (old != null) {
+            liveBytes.merge(NoteLog.segmentOf(old.location()), (long) -old.size(), Long::sum);
+        }
+        liveBytes.merge(NoteLog.segmentOf(location), (long) ref.size(), Long::sum);
+    }
+
+    // the ref is re-read when compaction deleted the segment it pointed into; null once the note is gone
+    private String title(long id, NoteRef ref) {
+        for (; ref != null; ref = notes.get(id)) {
+            String title = log.readTitle(ref.location());
+            if (title != null) {
+                return title;
+            }
+        }
+        return null;
+    }
+}
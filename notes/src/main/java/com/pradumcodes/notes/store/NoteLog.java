@@ -0,0 +1,374 @@
+package com.pradumcodes.notes.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only note log stored in fixed-size, memory-mapped segment files
+ * ({@code segment-000000.log}, {@code segment-000001.log}, ...).
+ *
+ * <p>Record layout: {@code int length | int crc32 | byte type | long id | long createdAt | long updatedAt |
+ * int titleLength | title | int contentLength | content}. {@code length} counts everything after itself and
+ * is written last, so a record torn by a crash reads as length 0 (end of log) or fails its CRC check; either
+ * way recovery stops there and the tail is wiped before new records are appended.
+ *
+ * <p>A location is {@code segment << 32 | offset}. Segment numbers only grow, so a location never points at a
+ * different record later. Appends are serialized by the caller or by this class' monitor; reads use absolute
+ * gets on the shared buffers and are safe from any thread.
+ *
+ * <p>Space is reclaimed by compaction, driven by the caller: it {@link #scan}s a sealed segment, {@link #copy}s
+ * the records that still matter to the head of the log and then {@link #deleteSegment deletes} the segment.
+ * Reads of a location in a deleted segment return null, and the caller looks the record up again.
+ */
+public class NoteLog implements Closeable {
+
+    public static final byte PUT = 1;
+    public static final byte DELETE = 2;
+
+    private static final int HEADER_SIZE = 4 + 4;                       // length + crc
+    private static final int FIXED_PAYLOAD = 1 + 8 + 8 + 8 + 4 + 4;     // type, id, timestamps, two lengths
+    private static final int PAGE_SIZE = 4096;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean syncWrites;
+    private final NavigableMap<Integer, MappedByteBuffer> segments = new ConcurrentSkipListMap<>(); // readers never lock
+    private final Set<Integer> unforcedCopies = new TreeSet<>(); // segments holding copies not forced to disk yet
+    private int writeOffset;
+    private long bytesAppended;
+
+    public NoteLog(Path dir, int segmentSize, boolean syncWrites) {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("segment size must be at least 1KB");
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.syncWrites = syncWrites;
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                List<Path> existing = files
+                        .filter(p -> p.getFileName().toString().matches("segment-\\d{6,}\\.log"))
+                        .toList();
+                for (Path file : existing) {
+                    String name = file.getFileName().toString();
+                    segments.put(Integer.parseInt(name.substring(8, name.length() - 4)), map(file));
+                }
+            }
+            if (segments.isEmpty()) {
+                segments.put(0, map(segmentPath(0)));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not open note log in " + dir, ex);
+        }
+    }
+
+    /**
+     * Called once per valid record during {@link #recover(Visitor)} and {@link #scan(int, Visitor)}; only the
+     * header is decoded, use {@link #read(long)} for the full note.
+     */
+    public interface Visitor {
+        void visit(long location, byte type, long id);
+    }
+
+    /**
+     * Walks every valid record in order and positions the log for appending right after the last one.
+     * Must be called once before {@link #append}.
+     */
+    public synchronized void recover(Visitor visitor) {
+        for (Map.Entry<Integer, MappedByteBuffer> entry : segments.entrySet()) {
+            int end = scan(entry.getKey(), entry.getValue(), visitor);
+            if (entry.getKey().equals(segments.lastKey())) {
+                writeOffset = end;
+                wipe(entry.getValue(), end);
+            }
+        }
+    }
+
+    /** Walks the valid records of one segment in order, e.g. to find the ones a compaction has to keep. */
+    public void scan(int segment, Visitor visitor) {
+        MappedByteBuffer buffer = segments.get(segment);
+        if (buffer == null) {
+            throw new IllegalArgumentException("no log segment " + segment);
+        }
+        scan(segment, buffer, visitor);
+    }
+
+    /**
+     * Appends an exact copy of the record at {@code location}, header included, and returns where the copy is.
+     * The source segment must still exist.
+     */
+    public synchronized long copy(long location) {
+        MappedByteBuffer source = segment(location);
+        int sourceOffset = (int) location;
+        int recordLength = 4 + source.getInt(sourceOffset);
+        if (writeOffset + recordLength > segments.lastEntry().getValue().capacity()) {
+            roll();
+        }
+        int segmentNumber = segments.lastKey();
+        MappedByteBuffer segment = segments.lastEntry().getValue();
+        int offset = writeOffset;
+        // everything but the length first, so the copy only becomes visible once complete
+        segment.put(offset + 4, source, sourceOffset + 4, recordLength - 4);
+        segment.putInt(offset, recordLength - 4);
+        if (syncWrites) {
+            segment.force(offset, recordLength);
+        } else {
+            unforcedCopies.add(segmentNumber);
+        }
+        writeOffset = offset + recordLength;
+        bytesAppended += recordLength;
+        return location(segmentNumber, offset);
+    }
+
+    /**
+     * Removes a sealed segment once everything still needed from it has been {@link #copy copied}. Every segment
+     * a copy went to is forced to disk first (a copy can roll the log, so that is not just the head), so the
+     * copies are durable before their originals disappear.
+     */
+    public synchronized void deleteSegment(int segment) {
+        if (segment == segments.lastKey()) {
+            throw new IllegalArgumentException("cannot delete the segment being appended to");
+        }
+        for (int copiedTo : unforcedCopies) {
+            MappedByteBuffer buffer = segments.get(copiedTo);
+            if (buffer != null) {
+                buffer.force();
+            }
+        }
+        unforcedCopies.clear();
+        if (segments.remove(segment) == null) {
+            return;
+        }
+        // readers that already hold the buffer keep a valid mapping; new lookups see the segment as gone
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not delete note log segment " + segment + " in " + dir, ex);
+        }
+    }
+
+    /** Segments that no longer receive appends, oldest first. */
+    public List<Integer> sealedSegments() {
+        List<Integer> sealed = new ArrayList<>(segments.keySet());
+        sealed.removeLast();
+        return sealed;
+    }
+
+    /** Whether any segment numbered {@code from..to} (inclusive) still exists; false for an empty range. */
+    public boolean hasSegmentBetween(int from, int to) {
+        return from <= to && !segments.subMap(from, true, to, true).isEmpty();
+    }
+
+    // everything append() and copy() wrote since the log was opened, headers included
+    public synchronized long bytesAppended() {
+        return bytesAppended;
+    }
+
+    public int activeSegment() {
+        return segments.lastKey();
+    }
+
+    /** Capacity in bytes of a segment, or 0 if it no longer exists. */
+    public int segmentCapacity(int segment) {
+        MappedByteBuffer buffer = segments.get(segment);
+        return buffer == null ? 0 : buffer.capacity();
+    }
+
+    /** Bytes the record at {@code location} takes in its segment, header included. */
+    public int recordSize(long location) {
+        return 4 + segment(location).getInt((int) location);
+    }
+
+    public static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    public synchronized long append(byte type, long id, long createdAt, long updatedAt, String title, String content) {
+        byte[] titleBytes = title.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = FIXED_PAYLOAD + titleBytes.length + contentBytes.length;
+        int recordLength = HEADER_SIZE + payloadLength;
+        if (recordLength > segmentSize) {
+            throw new IllegalArgumentException("note of " + recordLength + " bytes does not fit in a log segment");
+        }
+        if (writeOffset + recordLength > segments.lastEntry().getValue().capacity()) {
+            roll();
+        }
+
+        int segmentNumber = segments.lastKey();
+        MappedByteBuffer segment = segments.lastEntry().getValue();
+        int offset = writeOffset;
+        int payloadStart = offset + HEADER_SIZE;
+
+        ByteBuffer payload = segment.slice(payloadStart, payloadLength);
+        payload.put(type)
+                .putLong(id)
+                .putLong(createdAt)
+                .putLong(updatedAt)
+                .putInt(titleBytes.length).put(titleBytes)
+                .putInt(contentBytes.length).put(contentBytes);
+
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(payloadStart, payloadLength));
+        segment.putInt(offset + 4, (int) crc.getValue());
+        segment.putInt(offset, 4 + payloadLength); // commit point
+        if (syncWrites) {
+            segment.force(offset, recordLength);
+        }
+
+        writeOffset = offset + recordLength;
+        bytesAppended += recordLength;
+        return location(segmentNumber, offset);
+    }
+
+    /** @return the record, or null if compaction deleted its segment meanwhile */
+    public NoteRecord read(long location) {
+        MappedByteBuffer segment = segments.get(segmentOf(location));
+        if (segment == null) {
+            return null;
+        }
+        int pos = (int) location + HEADER_SIZE;
+        byte type = segment.get(pos);
+        long id = segment.getLong(pos + 1);
+        long createdAt = segment.getLong(pos + 9);
+        long updatedAt = segment.getLong(pos + 17);
+        int titleLength = segment.getInt(pos + 25);
+        String title = string(segment, pos + 29, titleLength);
+        int contentPos = pos + 29 + titleLength;
+        int contentLength = segment.getInt(contentPos);
+        String content = string(segment, contentPos + 4, contentLength);
+        return new NoteRecord(type, id, createdAt, updatedAt, title, content);
+    }
+
+    // cheaper than read() when only the title is needed (search results, listings); null like read()
+    public String readTitle(long location) {
+        MappedByteBuffer segment = segments.get(segmentOf(location));
+        if (segment == null) {
+            return null;
+        }
+        int pos = (int) location + HEADER_SIZE;
+        return string(segment, pos + 29, segment.getInt(pos + 25));
+    }
+
+    public synchronized long sizeInBytes() {
+        long size = writeOffset;
+        for (MappedByteBuffer segment : segments.headMap(segments.lastKey()).values()) {
+            size += segment.capacity();
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (MappedByteBuffer segment : segments.values()) {
+            segment.force();
+        }
+    }
+
+    private void roll() {
+        try {
+            int next = segments.lastKey() + 1;
+            segments.put(next, map(segmentPath(next)));
+            writeOffset = 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not create note log segment in " + dir, ex);
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            // existing segments keep their size even if notes.store.segment-size changed since they were written;
+            // new files are zero-filled (sparse). The mapping stays valid after the channel is closed.
+            long size = raf.length() > 0 ? raf.length() : segmentSize;
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private MappedByteBuffer segment(long location) {
+        MappedByteBuffer segment = segments.get(segmentOf(location));
+        if (segment == null) {
+            throw new IllegalArgumentException("log segment of location " + location + " was deleted");
+        }
+        return segment;
+    }
+
+    // returns the offset right after the last valid record
+    private static int scan(int segmentNumber, MappedByteBuffer segment, Visitor visitor) {
+        CRC32 crc = new CRC32();
+        int offset = 0;
+        int capacity = segment.capacity();
+        while (offset + HEADER_SIZE <= capacity) {
+            int length = segment.getInt(offset);
+            if (length < 4 + FIXED_PAYLOAD || offset + 4 + length > capacity) {
+                break; // 0 = clean end of segment; anything else is a torn or corrupt record
+            }
+            int payloadStart = offset + HEADER_SIZE;
+            int payloadLength = length - 4;
+            crc.reset();
+            crc.update(segment.slice(payloadStart, payloadLength));
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                break;
+            }
+            visitor.visit(location(segmentNumber, offset), segment.get(payloadStart), segment.getLong(payloadStart + 1));
+            offset += 4 + length;
+        }
+        return offset;
+    }
+
+    private Path segmentPath(int index) {
+        return dir.resolve(String.format("segment-%06d.log", index));
+    }
+
+    private static long location(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private static String string(MappedByteBuffer segment, int pos, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Zero whatever follows the last valid record so leftovers of a torn write can never be read back as a
+     * record once new appends land in front of them. Leftovers are contiguous, so this stops at the first
+     * page that is already clean (untouched pages of a sparse segment read as zeros and stay unallocated).
+     */
+    private static void wipe(MappedByteBuffer segment, int from) {
+        int end = segment.capacity();
+        int pos = from;
+        while (pos < end) {
+            int pageEnd = Math.min(end, (pos / PAGE_SIZE + 1) * PAGE_SIZE);
+            boolean dirty = false;
+            for (int i = pos; i < pageEnd && !dirty; i++) {
+                dirty = segment.get(i) != 0;
+            }
+            if (!dirty) {
+                return;
+            }
+            for (int i = pos; i < pageEnd; i++) {
+                segment.put(i, (byte) 0);
+            }
+            pos = pageEnd;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.pradumcodes.notes.store;
+
+/**
+ * One decoded entry of the {@link NoteLog}. Timestamps are epoch milliseconds.
+ */
+public record NoteRecord(byte type, long id, long createdAt, long updatedAt, String title, String content) {
+}
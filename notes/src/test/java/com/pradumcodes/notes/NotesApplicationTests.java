@@ -3,7 +3,7 @@ package com.pradumcodes.notes;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "notes.store.dir=target/test-notes")
 class NotesApplicationTests {
 
 	@Test
@@ -0,0 +1,32 @@
+package com.pradumcodes.notes.benchmark;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+
+// the "obvious" JPA implementation the note log is benchmarked against
+@Entity
+public class JpaNote {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String title;
+
+    @Column(length = 100_000)
+    private String content;
+
+    protected JpaNote() {
+    }
+
+    public JpaNote(String title, String content) {
+        this.title = title;
+        this.content = content;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,14 @@
+package com.pradumcodes.notes.benchmark;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface JpaNoteRepository extends JpaRepository<JpaNote, Long> {
+
+    @Query("select n.id from JpaNote n where lower(n.content) like :first and lower(n.content) like :second")
+    List<Long> searchBoth(@Param("first") String first, @Param("second") String second, Limit limit);
+}
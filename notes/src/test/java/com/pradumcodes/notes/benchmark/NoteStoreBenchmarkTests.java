@@ -0,0 +1,124 @@
+package com.pradumcodes.notes.benchmark;
+
+import com.pradumcodes.notes.service.NoteIndex;
+import com.pradumcodes.notes.service.NoteService;
+import com.pradumcodes.notes.store.NoteLog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Indexing and query throughput of the note log + inverted index versus a JPA/H2 table queried with LIKE,
+ * plus how long a restart takes to recover the log. Opt-in: ./mvnw test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"notes.store.dir=target/benchmark-notes-app",
+		"spring.jpa.show-sql=false"
+})
+class NoteStoreBenchmarkTests {
+
+	private static final int NOTES = 20_000;
+	private static final int WORDS_PER_NOTE = 40;
+	private static final int VOCABULARY = 5_000;
+	private static final int QUERIES = 500;
+	private static final int JPA_BATCH = 1_000;
+
+	@TempDir
+	Path dir;
+
+	@Autowired
+	private JpaNoteRepository jpaNotes;
+
+	@Test
+	void noteLogVersusJpa() {
+		Random random = new Random(42);
+		List<String> contents = new ArrayList<>(NOTES);
+		for (int i = 0; i < NOTES; i++) {
+			contents.add(sentence(random, WORDS_PER_NOTE));
+		}
+		List<String[]> queries = new ArrayList<>(QUERIES);
+		for (int i = 0; i < QUERIES; i++) {
+			queries.add(new String[]{word(random), word(random)});
+		}
+
+		// note log + inverted index
+		NoteLog log = new NoteLog(dir, 64 * 1024 * 1024, false);
+		NoteService notes = new NoteService(log, new NoteIndex());
+		long start = System.nanoTime();
+		for (int i = 0; i < NOTES; i++) {
+			notes.create("note " + i, contents.get(i));
+		}
+		double logInsert = rate(NOTES, start);
+
+		start = System.nanoTime();
+		long logHits = 0;
+		for (String[] q : queries) {
+			logHits += notes.search(q[0] + " " + q[1], 20).size();
+		}
+		double logQuery = rate(QUERIES, start);
+		log.close();
+
+		start = System.nanoTime();
+		NoteService recovered = new NoteService(new NoteLog(dir, 64 * 1024 * 1024, false), new NoteIndex());
+		double recoveryMillis = (System.nanoTime() - start) / 1e6;
+		assertEquals(NOTES, recovered.count());
+
+		// JPA on H2
+		start = System.nanoTime();
+		List<JpaNote> batch = new ArrayList<>(JPA_BATCH);
+		for (int i = 0; i < NOTES; i++) {
+			batch.add(new JpaNote("note " + i, contents.get(i)));
+			if (batch.size() == JPA_BATCH) {
+				jpaNotes.saveAll(batch);
+				batch.clear();
+			}
+		}
+		jpaNotes.saveAll(batch);
+		double jpaInsert = rate(NOTES, start);
+
+		start = System.nanoTime();
+		long jpaHits = 0;
+		for (String[] q : queries) {
+			// LIKE matches substrings, so pad with spaces to approximate whole-word matching
+			jpaHits += jpaNotes.searchBoth("% " + q[0] + " %", "% " + q[1] + " %", Limit.of(20)).size();
+		}
+		double jpaQuery = rate(QUERIES, start);
+
+		System.out.printf("%-24s %14s %14s%n", "", "note log", "JPA/H2");
+		System.out.printf("%-24s %14.0f %14.0f%n", "inserts/s", logInsert, jpaInsert);
+		System.out.printf("%-24s %14.0f %14.0f%n", "2-term queries/s", logQuery, jpaQuery);
+		System.out.printf("%-24s %14d %14d%n", "total hits (limit 20)", logHits, jpaHits);
+		System.out.printf("%-24s %14.1f %14s%n", "recovery ms", recoveryMillis, "-");
+	}
+
+	// words are padded with spaces on both sides so the LIKE baseline can find whole words
+	private static String sentence(Random random, int words) {
+		StringBuilder sb = new StringBuilder(" ");
+		for (int i = 0; i < words; i++) {
+			sb.append(word(random)).append(' ');
+		}
+		return sb.toString();
+	}
+
+	// skewed towards low ranks, roughly like word frequencies in real text
+	private static String word(Random random) {
+		double r = random.nextDouble();
+		return "w" + (int) (r * r * VOCABULARY);
+	}
+
+	private static double rate(int operations, long startNanos) {
+		return operations / ((System.nanoTime() - startNanos) / 1e9);
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.pradumcodes.notes.service;
+
+import com.pradumcodes.notes.dto.NoteSummary;
+import com.pradumcodes.notes.model.Note;
+import com.pradumcodes.notes.store.NoteLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteServiceTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void searchFollowsUpdatesDeletesAndRestarts() {
+		NoteLog log = new NoteLog(dir, 64 * 1024, false);
+		NoteService service = new NoteService(log, new NoteIndex());
+		Note groceries = service.create("Groceries", "milk, eggs and bread");
+		Note recipe = service.create("Pancakes", "eggs, milk, flour; whisk the eggs first");
+		Note todo = service.create("Todo", "call the bank");
+
+		assertEquals(List.of(recipe.getId(), groceries.getId()), ids(service.search("EGGS milk", 10)));
+
+		service.update(groceries.getId(), "Groceries", "apples and bread");
+		service.delete(todo.getId());
+		assertEquals(List.of(recipe.getId()), ids(service.search("eggs", 10)));
+		assertTrue(service.search("bank", 10).isEmpty());
+		log.close();
+
+		NoteService restarted = new NoteService(new NoteLog(dir, 64 * 1024, false), new NoteIndex());
+		assertEquals(2, restarted.count());
+		assertEquals(List.of(groceries.getId()), ids(restarted.search("apples", 10)));
+		assertEquals("apples and bread", restarted.findById(groceries.getId()).orElseThrow().getContent());
+		// deleted ids are not reused
+		assertEquals(todo.getId() + 1, restarted.create("New", "note").getId());
+	}
+
+	@Test
+	void compactionKeepsTheLogBoundedAndDeletedNotesDeleted() throws IOException {
+		NoteLog log = new NoteLog(dir, 4096, false);
+		NoteService service = new NoteService(log, new NoteIndex());
+		String filler = "z".repeat(500);
+		Note edited = service.create("Edited", "version 0 " + filler);
+		Note deleted = service.create("Deleted", filler);
+		Note kept = service.create("Kept", "untouched " + filler);
+		Note highest = service.create("Highest", filler);
+		service.delete(deleted.getId());
+		service.delete(highest.getId());
+		for (int i = 1; i <= 200; i++) {
+			service.update(edited.getId(), "Edited", "version " + i + " " + filler);
+		}
+		// 200 overwrites of ~550 bytes would take ~28 segments of 4KB without compaction
+		assertTrue(segmentFiles() <= 3, segmentFiles() + " segments");
+		assertEquals("version 200 " + filler, service.findById(edited.getId()).orElseThrow().getContent());
+		log.close();
+
+		NoteService restarted = new NoteService(new NoteLog(dir, 4096, false), new NoteIndex());
+		assertEquals(2, restarted.count());
+		assertEquals("version 200 " + filler, restarted.findById(edited.getId()).orElseThrow().getContent());
+		assertEquals(List.of(kept.getId()), ids(restarted.search("untouched", 10)));
+		assertFalse(restarted.findById(deleted.getId()).isPresent());
+		assertEquals(highest.getId() + 1, restarted.create("New", "note").getId());
+	}
+
+	@Test
+	void manyDeletesDoNotKeepTombstonesMovingForward() throws IOException {
+		NoteLog log = new NoteLog(dir, 4096, false);
+		NoteService service = new NoteService(log, new NoteIndex());
+		List<Note> live = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			live.add(service.create("Live " + i, "kept"));
+		}
+		for (int i = 0; i < 2000; i++) {
+			service.delete(service.create("Short-lived " + i, "gone").getId());
+		}
+		// 2,000 dead notes and their tombstones would fill ~25 segments of 4KB
+		assertTrue(segmentFiles() <= 2, segmentFiles() + " segments after the deletes");
+
+		long before = log.bytesAppended();
+		String body = "u".repeat(250);
+		for (int i = 0; i < 2000; i++) {
+			service.update(live.get(i % live.size()).getId(), "Live", body + i);
+		}
+		// each update appends ~300 bytes; compaction may copy the live notes along, not the old tombstones
+		long appended = log.bytesAppended() - before;
+		assertTrue(appended < 3 * 2000 * 300, appended + " bytes appended");
+		assertTrue(segmentFiles() <= 3, segmentFiles() + " segments after the updates");
+		long lastId = service.create("Last", "note").getId();
+		service.delete(lastId);
+		log.close();
+
+		NoteService restarted = new NoteService(new NoteLog(dir, 4096, false), new NoteIndex());
+		assertEquals(7, restarted.count());
+		assertFalse(restarted.findById(live.getLast().getId() + 1).isPresent());
+		assertEquals(lastId + 1, restarted.create("New", "note").getId());
+	}
+
+	private long segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.count();
+		}
+	}
+
+	private static List<Long> ids(List<NoteSummary> hits) {
+		return hits.stream().map(NoteSummary::getId).toList();
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.pradumcodes.notes.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NoteLogTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recoversRecordsAcrossSegmentsAfterReopen() {
+		NoteLog log = new NoteLog(dir, 4096, false);
+		log.recover((location, type, id) -> { });
+		String content = "x".repeat(1000);
+		List<Long> locations = new ArrayList<>();
+		for (long id = 1; id <= 10; id++) {
+			locations.add(log.append(NoteLog.PUT, id, id, id, "note " + id, content));
+		}
+		log.close();
+
+		NoteLog reopened = new NoteLog(dir, 4096, false);
+		List<Long> ids = new ArrayList<>();
+		reopened.recover((location, type, id) -> ids.add(id));
+
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), ids);
+		NoteRecord last = reopened.read(locations.get(9));
+		assertEquals("note 10", last.title());
+		assertEquals(content, last.content());
+	}
+
+	@Test
+	void stopsAtTornRecordAndAppendsOverIt() throws Exception {
+		NoteLog log = new NoteLog(dir, 4096, false);
+		log.recover((location, type, id) -> { });
+		log.append(NoteLog.PUT, 1, 0, 0, "kept", "first");
+		long torn = log.append(NoteLog.PUT, 2, 0, 0, "torn", "second");
+		log.close();
+
+		// corrupt one content byte of the second record, as if the crash hit mid-write
+		try (RandomAccessFile file = new RandomAccessFile(dir.resolve("segment-000000.log").toFile(), "rw")) {
+			file.seek(torn + 50);
+			file.write('!');
+		}
+
+		NoteLog reopened = new NoteLog(dir, 4096, false);
+		List<Long> ids = new ArrayList<>();
+		reopened.recover((location, type, id) -> ids.add(id));
+		assertEquals(List.of(1L), ids);
+
+		reopened.append(NoteLog.PUT, 3, 0, 0, "after", "recovery");
+		reopened.close();
+		ids.clear();
+		new NoteLog(dir, 4096, false).recover((location, type, id) -> ids.add(id));
+		assertEquals(List.of(1L, 3L), ids);
+	}
+
+	@Test
+	void copiedRecordsSurviveDeletingTheirSegment() {
+		NoteLog log = new NoteLog(dir, 4096, false);
+		log.recover((location, type, id) -> { });
+		String content = "y".repeat(1000);
+		long first = log.append(NoteLog.PUT, 1, 10, 20, "kept", content);
+		for (long id = 2; id <= 4; id++) {
+			log.append(NoteLog.PUT, id, 0, 0, "dropped", content);
+		}
+		assertEquals(List.of(0), log.sealedSegments());
+
+		long copy = log.copy(first);
+		log.deleteSegment(0);
+		assertNull(log.read(first));
+		assertFalse(dir.resolve("segment-000000.log").toFile().exists());
+		log.close();
+
+		NoteLog reopened = new NoteLog(dir, 4096, false);
+		List<Long> ids = new ArrayList<>();
+		reopened.recover((location, type, id) -> ids.add(id));
+		assertEquals(List.of(4L, 1L), ids);
+		NoteRecord record = reopened.read(copy);
+		assertEquals("kept", record.title());
+		assertEquals(20, record.updatedAt());
+		assertEquals(content, record.content());
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.pradumcodes.perf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs one line per request with its latency, on the {@code com.pradumcodes.perf.access} logger
+ * (turn it off with {@code logging.level.com.pradumcodes.perf.access=warn} to keep only slow requests).
+ *
+ * <p>Every {@code perf.access-log.allocation-sample-every}-th request also records how many bytes its
+ * thread allocated on the heap. Only the request thread is measured, so work handed to other threads
+ * (async requests, executors) is not included.
+ */
+public class AccessLogFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger("com.pradumcodes.perf.access");
+
+    private final RequestMetrics metrics;
+    private final int sampleEvery;
+    private final long slowNanos;
+    private final com.sun.management.ThreadMXBean threads; // null when the JVM can't measure allocations
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AccessLogFilter(RequestMetrics metrics, PerfProperties.AccessLog properties) {
+        this.metrics = metrics;
+        this.sampleEvery = properties.getAllocationSampleEvery();
+        this.slowNanos = properties.getSlowThreshold().toNanos();
+        this.threads = allocationCounter();
+    }
+
+    // outermost, so the measured time includes every other filter
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean sampled = threads != null && sampleEvery > 0 && sequence.getAndIncrement() % sampleEvery == 0;
+        long allocatedBefore = sampled ? threads.getCurrentThreadAllocatedBytes() : 0;
+        long start = System.nanoTime();
+        metrics.started();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            long allocated = sampled && !request.isAsyncStarted()
+                    ? threads.getCurrentThreadAllocatedBytes() - allocatedBefore
+                    : -1;
+            metrics.finished(nanos, allocated);
+            // an exception escaping here becomes a 500 further up, the response doesn't know it yet
+            write(request, failed ? 500 : response.getStatus(), nanos, allocated);
+        }
+    }
+
+    private void write(HttpServletRequest request, int status, long nanos, long allocated) {
+        boolean slow = nanos >= slowNanos;
+        if (slow ? !log.isWarnEnabled() : !log.isInfoEnabled()) {
+            return;
+        }
+        String line = String.format("%s %s %d %.1fms%s%s", request.getMethod(), request.getRequestURI(), status,
+                nanos / 1e6, allocated >= 0 ? " alloc=" + allocated / 1024 + "KB" : "",
+                request.isAsyncStarted() ? " async" : "");
+        if (slow) {
+            log.warn("{} (slow)", line);
+        } else {
+            log.info(line);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
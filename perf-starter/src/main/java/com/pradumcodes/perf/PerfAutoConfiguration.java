@@ -0,0 +1,65 @@
+package com.pradumcodes.perf;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Performance defaults shared by every application in this repository; adding the starter is enough.
+ *
+ * <p>{@code perf-defaults.properties} (plus {@code perf-endpoint-defaults.properties} when {@code /perf} is
+ * enabled) is added with the lowest precedence, so any {@code server.*} or
+ * {@code spring.datasource.hikari.*} value in an application's own configuration wins. It is read while
+ * configuration classes are parsed, i.e. before the web server and the data source are created.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(PerfProperties.class)
+@PropertySource("classpath:META-INF/perf-defaults.properties")
+public class PerfAutoConfiguration {
+
+    @Bean
+    public RequestMetrics perfRequestMetrics() {
+        return new RequestMetrics();
+    }
+
+    // a plain Filter bean is registered for all URLs by Boot, with the order the filter reports
+    @Bean
+    @ConditionalOnProperty(name = "perf.access-log.enabled", matchIfMissing = true)
+    public AccessLogFilter perfAccessLogFilter(RequestMetrics perfRequestMetrics, PerfProperties properties) {
+        return new AccessLogFilter(perfRequestMetrics, properties.getAccessLog());
+    }
+
+    // opt-in: the report exposes pool sizes and JVM details on the application port, next to public endpoints.
+    // The MBean registration it reads from is switched on only here, so apps without /perf don't pay for it.
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "perf.endpoint.enabled", havingValue = "true")
+    @PropertySource("classpath:META-INF/perf-endpoint-defaults.properties")
+    static class PerfEndpointConfiguration {
+
+        @Bean
+        public PerfEndpoint perfEndpoint(RequestMetrics perfRequestMetrics,
+                                         ObjectProvider<ThreadPoolTaskExecutor> executors) {
+            return new PerfEndpoint(perfRequestMetrics, executors);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    static class HikariTuningConfiguration {
+
+        // static: post-processors are created before the rest of the configuration
+        @Bean
+        static HikariTuningPostProcessor perfHikariTuningPostProcessor() {
+            return new HikariTuningPostProcessor();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.pradumcodes.perf;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code GET /perf}: request latency since startup plus how busy the Tomcat connector threads, the
+ * application's task executors and the Hikari connection pools are right now.
+ *
+ * <p>Tomcat and Hikari are read through the platform MBean server (registration is switched on in
+ * {@code perf-endpoint-defaults.properties}, added only while this endpoint is enabled), which keeps this class independent of their APIs and of the
+ * Spring Boot version. Pools that aren't registered are simply left out.
+ */
+@RestController
+public class PerfEndpoint {
+
+    private final RequestMetrics metrics;
+    private final ObjectProvider<ThreadPoolTaskExecutor> executors;
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    public PerfEndpoint(RequestMetrics metrics, ObjectProvider<ThreadPoolTaskExecutor> executors) {
+        this.metrics = metrics;
+        this.executors = executors;
+    }
+
+    @GetMapping("/perf")
+    public PerfReport report() {
+        return new PerfReport(metrics.snapshot(), threadPools(), connectionPools(), jvm());
+    }
+
+    private List<PerfReport.ThreadPool> threadPools() {
+        List<PerfReport.ThreadPool> pools = new ArrayList<>();
+        for (ObjectName name : query("Tomcat:type=ThreadPool,name=*")) {
+            try {
+                int busy = intAttribute(name, "currentThreadsBusy");
+                int max = intAttribute(name, "maxThreads");
+                pools.add(new PerfReport.ThreadPool("tomcat " + ObjectName.unquote(name.getKeyProperty("name")),
+                        busy, intAttribute(name, "currentThreadCount"), max, null, ratio(busy, max)));
+            } catch (JMException | RuntimeException ex) {
+                // connector stopped or attribute missing on this Tomcat version
+            }
+        }
+        executors.orderedStream().forEach(executor -> {
+            int busy = executor.getActiveCount();
+            int max = executor.getMaxPoolSize();
+            pools.add(new PerfReport.ThreadPool(executor.getThreadNamePrefix(), busy, executor.getPoolSize(),
+                    max, executor.getQueueSize(), ratio(busy, max)));
+        });
+        return pools;
+    }
+
+    private List<PerfReport.ConnectionPool> connectionPools() {
+        List<PerfReport.ConnectionPool> pools = new ArrayList<>();
+        for (ObjectName name : query("com.zaxxer.hikari:type=Pool *")) {
+            String poolName = name.getKeyProperty("type").substring("Pool (".length()).replaceFirst("\\)$", "");
+            try {
+                int active = intAttribute(name, "ActiveConnections");
+                int max = intAttribute(new ObjectName("com.zaxxer.hikari:type=PoolConfig (" + poolName + ")"),
+                        "MaximumPoolSize");
+                pools.add(new PerfReport.ConnectionPool(poolName, active, intAttribute(name, "IdleConnections"),
+                        intAttribute(name, "TotalConnections"), max,
+                        intAttribute(name, "ThreadsAwaitingConnection"), ratio(active, max)));
+            } catch (JMException | RuntimeException ex) {
+                // pool shut down between the query and the read
+            }
+        }
+        return pools;
+    }
+
+    private static PerfReport.Jvm jvm() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcTime += Math.max(0, gc.getCollectionTime());
+        }
+        return new PerfReport.Jvm(heap.getUsed(), heap.getMax(), ManagementFactory.getThreadMXBean().getThreadCount(),
+                gcCount, gcTime, ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private List<ObjectName> query(String pattern) {
+        try {
+            return server.queryNames(new ObjectName(pattern), null).stream().sorted().toList();
+        } catch (JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private int intAttribute(ObjectName name, String attribute) throws JMException {
+        return ((Number) server.getAttribute(name, attribute)).intValue();
+    }
+
+    // unbounded pools (max Integer.MAX_VALUE) can't saturate
+    private static Double ratio(int used, int max) {
+        return max > 0 && max < Integer.MAX_VALUE ? (double) used / max : null;
+    }
+}
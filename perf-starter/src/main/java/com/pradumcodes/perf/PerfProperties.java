@@ -0,0 +1,73 @@
+package com.pradumcodes.perf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@code perf.*} settings. Compression, Tomcat and Hikari tuning are plain {@code server.*} /
+ * {@code spring.datasource.hikari.*} properties with defaults from {@code META-INF/perf-defaults.properties}.
+ */
+@ConfigurationProperties("perf")
+public class PerfProperties {
+
+    private final AccessLog accessLog = new AccessLog();
+    private final Endpoint endpoint = new Endpoint();
+
+    public AccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public static class AccessLog {
+
+        private boolean enabled = true;
+
+        // measure allocated bytes for one request out of this many (0 = never)
+        private int allocationSampleEvery = 100;
+
+        // requests at least this slow are logged at WARN instead of INFO
+        private Duration slowThreshold = Duration.ofMillis(500);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getAllocationSampleEvery() {
+            return allocationSampleEvery;
+        }
+
+        public void setAllocationSampleEvery(int allocationSampleEvery) {
+            this.allocationSampleEvery = allocationSampleEvery;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+
+    public static class Endpoint {
+
+        // GET /perf is served on the application port, so only turn it on where that port is not public
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pradumcodes.perf;
+
+import java.util.List;
+
+/**
+ * Body of {@code GET /perf}. Saturation is {@code busy / max} (or {@code active / max} for connection pools),
+ * {@code null} when the pool has no fixed maximum.
+ */
+public record PerfReport(RequestMetrics.Snapshot requests,
+                         List<ThreadPool> threadPools,
+                         List<ConnectionPool> connectionPools,
+                         Jvm jvm) {
+
+    // queued is null where the pool doesn't expose a queue (Tomcat connectors)
+    public record ThreadPool(String name, int busy, int size, int max, Integer queued, Double saturation) {
+    }
+
+    public record ConnectionPool(String name, int active, int idle, int total, int max, int waiting,
+                                 Double saturation) {
+    }
+
+    public record Jvm(long heapUsedBytes, long heapMaxBytes, int liveThreads,
+                      long gcCount, long gcTimeMillis, long uptimeMillis) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.pradumcodes.perf;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free request latency and allocation totals since startup, fed by {@link AccessLogFilter}.
+ * Latencies go into power-of-two microsecond buckets, so percentiles are upper bounds accurate to a factor of 2
+ * and recording costs a couple of atomic increments.
+ */
+public class RequestMetrics {
+
+    // bucket i holds latencies in [2^(i-1), 2^i) microseconds; the last one also takes everything slower
+    private static final int BUCKETS = 40;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder allocationSamples = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    public record Snapshot(long count, int inFlight, double meanMillis, double maxMillis,
+                           double p50Millis, double p95Millis, double p99Millis,
+                           long allocationSamples, long meanAllocatedBytes) {
+    }
+
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+
+    // allocated < 0 means this request was not sampled
+    public void finished(long nanos, long allocated) {
+        inFlight.decrementAndGet();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        buckets.incrementAndGet(bucket(nanos));
+        if (allocated >= 0) {
+            allocationSamples.increment();
+            allocatedBytes.add(allocated);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long samples = allocationSamples.sum();
+        double max = maxNanos.get() / 1e6;
+        return new Snapshot(count.sum(), inFlight.get(),
+                total == 0 ? 0 : totalNanos.sum() / 1e6 / total, max,
+                percentile(counts, total, 0.50, max), percentile(counts, total, 0.95, max),
+                percentile(counts, total, 0.99, max),
+                samples, samples == 0 ? 0 : allocatedBytes.sum() / samples);
+    }
+
+    static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    // upper bound of the bucket holding the requested rank, never above the slowest request actually seen
+    private static double percentile(long[] counts, long total, double quantile, double maxMillis) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min((1L << i) / 1000.0, maxMillis);
+            }
+        }
+        return maxMillis;
+    }
+}
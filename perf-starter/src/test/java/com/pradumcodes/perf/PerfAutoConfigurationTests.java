@@ -0,0 +1,75 @@
+package com.pradumcodes.perf;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfAutoConfigurationTests {
+
+	private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(PerfAutoConfiguration.class));
+
+	@Test
+	void contributesBeansAndLowestPrecedenceDefaults() {
+		runner.withPropertyValues("server.tomcat.threads.max=50").run(context -> {
+			assertThat(context).hasSingleBean(AccessLogFilter.class).doesNotHaveBean(PerfEndpoint.class);
+			assertThat(context.getEnvironment().getProperty("server.compression.enabled")).isEqualTo("true");
+			assertThat(context.getEnvironment().getProperty("server.tomcat.threads.max")).isEqualTo("50");
+			// static resource handling is left to the application
+			assertThat(context.getEnvironment().getProperty("spring.web.resources.chain.enabled")).isNull();
+			// JMX registration only serves /perf
+			assertThat(context.getEnvironment().getProperty("server.tomcat.mbeanregistry.enabled")).isNull();
+			assertThat(context.getEnvironment().getProperty("spring.datasource.hikari.register-mbeans")).isNull();
+		});
+	}
+
+	@Test
+	void endpointIsOptIn() {
+		runner.withPropertyValues("perf.endpoint.enabled=true", "spring.datasource.hikari.register-mbeans=false")
+				.run(context -> {
+					assertThat(context).hasSingleBean(PerfEndpoint.class);
+					assertThat(context.getBean(PerfEndpoint.class).report().requests().count()).isZero();
+					assertThat(context.getEnvironment().getProperty("server.tomcat.mbeanregistry.enabled"))
+							.isEqualTo("true");
+					// still the lowest precedence
+					assertThat(context.getEnvironment().getProperty("spring.datasource.hikari.register-mbeans"))
+							.isEqualTo("false");
+				});
+	}
+
+	@Test
+	void accessLogAndEndpointCanBeTurnedOff() {
+		runner.withPropertyValues("perf.access-log.enabled=false", "perf.endpoint.enabled=false").run(context -> {
+			assertThat(context).doesNotHaveBean(AccessLogFilter.class).doesNotHaveBean(PerfEndpoint.class);
+			assertThat(context).hasSingleBean(RequestMetrics.class);
+		});
+	}
+
+	@Test
+	void notAppliedOutsideServletApplications() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(PerfAutoConfiguration.class))
+				.run(context -> assertThat(context).doesNotHaveBean(RequestMetrics.class));
+	}
+
+	@Test
+	void mysqlPoolsGetStatementCachingOthersDont() {
+		HikariTuningPostProcessor postProcessor = new HikariTuningPostProcessor();
+		try (HikariDataSource mysql = new HikariDataSource(); HikariDataSource h2 = new HikariDataSource()) {
+			mysql.setJdbcUrl("jdbc:mysql://localhost/db");
+			mysql.addDataSourceProperty("prepStmtCacheSize", "500");
+			h2.setJdbcUrl("jdbc:h2:mem:test");
+
+			postProcessor.postProcessBeforeInitialization(mysql, "dataSource");
+			postProcessor.postProcessBeforeInitialization(h2, "other");
+
+			assertThat(mysql.getDataSourceProperties()).containsEntry("cachePrepStmts", "true")
+					.containsEntry("prepStmtCacheSize", "500");
+			assertThat(h2.getDataSourceProperties()).isEmpty();
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.pradumcodes.perf;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestMetricsTests {
+
+	private final RequestMetrics metrics = new RequestMetrics();
+
+	@Test
+	void percentilesAreBucketUpperBoundsCappedAtMax() {
+		for (int i = 0; i < 98; i++) {
+			record(3_000_000, -1); // 3ms -> bucket up to 4.096ms
+		}
+		record(100_000_000, 2048);
+		record(100_000_000, -1);
+
+		RequestMetrics.Snapshot snapshot = metrics.snapshot();
+		assertEquals(100, snapshot.count());
+		assertEquals(0, snapshot.inFlight());
+		assertEquals(4.94, snapshot.meanMillis(), 1e-9);
+		assertEquals(100, snapshot.maxMillis(), 1e-9);
+		assertEquals(4.096, snapshot.p50Millis(), 1e-9);
+		assertEquals(4.096, snapshot.p95Millis(), 1e-9);
+		assertEquals(100, snapshot.p99Millis(), 1e-9);
+		assertEquals(1, snapshot.allocationSamples());
+		assertEquals(2048, snapshot.meanAllocatedBytes());
+	}
+
+	@Test
+	void emptyAndInFlight() {
+		metrics.started();
+		RequestMetrics.Snapshot snapshot = metrics.snapshot();
+		assertEquals(0, snapshot.count());
+		assertEquals(1, snapshot.inFlight());
+		assertEquals(0, snapshot.p99Millis());
+	}
+
+	@Test
+	void bucketsCoverAnyLatency() {
+		assertEquals(0, RequestMetrics.bucket(999));
+		assertEquals(1, RequestMetrics.bucket(1_000));
+		assertTrue(RequestMetrics.bucket(Long.MAX_VALUE) < 40);
+	}
+
+	private void record(long nanos, long allocated) {
+		metrics.started();
+		metrics.finished(nanos, allocated);
+	}
+}
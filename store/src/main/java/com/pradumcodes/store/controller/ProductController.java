@@ -1,30 +1,96 @@
 package com.pradumcodes.store.controller;
 
+import com.pradumcodes.store.dto.CatalogStatsDto;
+import com.pradumcodes.store.dto.PriceUpdateDto;
+import com.pradumcodes.store.dto.PriceUpdateReport;
+import com.pradumcodes.store.dto.ProductImportReport;
+import com.pradumcodes.store.dto.ProductSearchResult;
 import com.pradumcodes.store.dto.ProductUpdateDto;
 import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.service.CatalogStatistics;
+import com.pradumcodes.store.service.ProductImportService;
+import com.pradumcodes.store.service.ProductPriceUpdateService;
+import com.pradumcodes.store.service.ProductSearchIndex;
 import com.pradumcodes.store.service.ProductService;
+import com.pradumcodes.store.service.ProductUpdateResult;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 @Controller
 public class ProductController {
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductPriceUpdateService productPriceUpdateService;
+    private final CatalogStatistics catalogStatistics;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             ProductSearchIndex productSearchIndex,
+                             ProductPriceUpdateService productPriceUpdateService,
+                             CatalogStatistics catalogStatistics) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productSearchIndex = productSearchIndex;
+        this.productPriceUpdateService = productPriceUpdateService;
+        this.catalogStatistics = catalogStatistics;
     }
 
     @GetMapping("/products")
-    public String viewProducts(Model model) {
-        model.addAttribute("products", productService.findAll());
+    public String viewProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            Model model) {
+
+        requireFinite(minPrice, "minPrice");
+        requireFinite(maxPrice, "maxPrice");
+        boolean filtered = (q != null && !q.isBlank()) || minPrice != null || maxPrice != null;
+        if (filtered) {
+            // filtering is served from the in-memory index, not by loading the whole table
+            ProductSearchResult result = productSearchIndex.search(q, minPrice, maxPrice, ProductSearchIndex.MAX_LIMIT);
+            model.addAttribute("products", result.getHits());
+            model.addAttribute("truncated", result.isTruncated());
+        } else {
+            model.addAttribute("products", productService.findAll());
+        }
+        model.addAttribute("filtered", filtered);
+        model.addAttribute("q", q);
+        model.addAttribute("minPrice", minPrice);
+        model.addAttribute("maxPrice", maxPrice);
         return "view";
     }
 
+    @GetMapping("/products/search")
+    public ResponseEntity<ProductSearchResult> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "50") int limit) {
+        requireFinite(minPrice, "minPrice");
+        requireFinite(maxPrice, "maxPrice");
+        return ResponseEntity.ok(productSearchIndex.search(q, minPrice, maxPrice, limit));
+    }
+
+    @GetMapping("/products/stats")
+    public ResponseEntity<CatalogStatsDto> productStats() {
+        return ResponseEntity.ok(catalogStatistics.snapshot());
+    }
+
     @GetMapping("/add")
     public String addProducts() {
         return "add";
@@ -36,25 +102,74 @@ public class ProductController {
         return "redirect:/products";
     }
 
+    // multipart upload (e.g. from curl -F file=@catalog.csv); large files are spooled to disk by the container
+    @PostMapping(value = "/products/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductImportReport> importProducts(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importCsv(in));
+        }
+    }
+
+    // raw CSV body (e.g. curl --data-binary @catalog.csv -H 'Content-Type: text/csv'), read straight off the socket
+    @PostMapping(value = "/products/import", consumes = "text/csv")
+    public ResponseEntity<ProductImportReport> importProductsCsv(HttpServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importCsv(in));
+        }
+    }
+
     @PostMapping("/products/delete")
     public String deleteProduct(@RequestParam Long id) {
         productService.deleteById(id);
         return "redirect:/products";
     }
 
+    // bulk price changes, e.g. [{"id": 1, "price": 499.0}, ...]; entries are validated individually
+    @PutMapping("/products/prices")
+    public ResponseEntity<PriceUpdateReport> updatePrices(@RequestBody List<PriceUpdateDto> updates) {
+        return ResponseEntity.ok(productPriceUpdateService.updatePrices(updates));
+    }
+
+    // JSON read of one product; its ETag is the If-Match value for a conditional PUT
+    @GetMapping(value = "/products/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
+        return productService.findById(id)
+                .map(product -> ResponseEntity.ok().eTag(Long.toString(product.getVersion())).body(product))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/products/{id}")
     public ResponseEntity<Product> updateProduct(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid ProductUpdateDto dto) {
 
         Product product = new Product(dto.getName(), dto.getPrice()); // map DTO -> entity
 
-        try {
-            Product updated = productService.updateProduct(id, product);
-            return ResponseEntity.ok(updated);
-        } catch (RuntimeException ex) {
-            return ResponseEntity.notFound().build();
+        // If-Match wins over a version in the body; "*" only requires the product to exist, and so does
+        // sending neither (last write wins, as before versions existed)
+        Long expectedVersion = dto.getVersion();
+        if (ifMatch != null) {
+            boolean anyVersion = ifMatch.trim().equals("*");
+            expectedVersion = anyVersion ? null : parseETag(ifMatch);
+            if (expectedVersion == null && !anyVersion) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
         }
+
+        ProductUpdateResult result = productService.updateProduct(id, product, expectedVersion);
+        return switch (result.getStatus()) {
+            case UPDATED -> ResponseEntity.ok()
+                    .eTag(Long.toString(result.getProduct().getVersion()))
+                    .body(result.getProduct());
+            // If-Match can't match a product that doesn't exist: 412 rather than 404 (RFC 9110, section 13.1.1)
+            case NOT_FOUND -> ifMatch != null
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()
+                    : ResponseEntity.notFound().build();
+            // 412 when the precondition came from If-Match, 409 when it came from the body
+            case VERSION_MISMATCH -> ResponseEntity.status(
+                    ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        };
     }
 
     @GetMapping("/products/{id}/edit")
@@ -79,14 +194,39 @@ public class ProductController {
     public String updateProductForm(
             @PathVariable Long id,
             @RequestParam String name,
-            @RequestParam double price) {
+            @RequestParam double price,
+            @RequestParam long version) {
 
         try {
-            productService.updateProduct(id, new Product(name, price));
+            ProductUpdateResult result = productService.updateProduct(id, new Product(name, price), version);
+            if (result.getStatus() == ProductUpdateResult.Status.VERSION_MISMATCH) {
+                // someone saved in between: reload the form with their values instead of overwriting them
+                return "redirect:/products/" + id + "/edit?conflict";
+            }
         } catch (RuntimeException ex) {
             // If update fails, simply redirect back to the list (can be improved to show errors)
         }
         return "redirect:/products";
     }
 
+    // "NaN" and "Infinity" bind to a Double but aren't usable price bounds
+    private static void requireFinite(Double bound, String name) {
+        if (bound != null && !Double.isFinite(bound)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a finite number");
+        }
+    }
+
+    // accepts 3 or "3"; weak (W/"3") and unparsable tags yield null since If-Match needs a strong match
+    private static Long parseETag(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
 }
\ No newline at end of file
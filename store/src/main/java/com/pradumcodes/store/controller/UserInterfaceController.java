@@ -1,14 +1,21 @@
 package com.pradumcodes.store.controller;
 
-import com.pradumcodes.store.service.ProductService;
+import com.pradumcodes.store.service.CatalogStatistics;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
 public class UserInterfaceController {
+    private final CatalogStatistics catalogStatistics;
+
+    public UserInterfaceController(CatalogStatistics catalogStatistics) {
+        this.catalogStatistics = catalogStatistics;
+    }
+
     @GetMapping("/")
-    public String index() {
+    public String index(Model model) {
+        model.addAttribute("stats", catalogStatistics.snapshot());
         return "index";
     }
 }
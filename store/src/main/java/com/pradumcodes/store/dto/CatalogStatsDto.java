@@ -0,0 +1,72 @@
+package com.pradumcodes.store.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class CatalogStatsDto {
+    private final long count;
+    private final Double minPrice;     // null when the catalog is empty
+    private final Double maxPrice;
+    private final Double averagePrice;
+    private final List<PriceBand> bands;
+    private final Instant lastReconciled;
+
+    public CatalogStatsDto(long count, Double minPrice, Double maxPrice, Double averagePrice,
+                           List<PriceBand> bands, Instant lastReconciled) {
+        this.count = count;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.averagePrice = averagePrice;
+        this.bands = bands;
+        this.lastReconciled = lastReconciled;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public List<PriceBand> getBands() {
+        return bands;
+    }
+
+    // when the aggregates were last recomputed from the table (they are maintained incrementally in between)
+    public Instant getLastReconciled() {
+        return lastReconciled;
+    }
+
+    public static class PriceBand {
+        private final double from;
+        private final Double to; // exclusive; null for the open-ended top band
+        private final long count;
+
+        public PriceBand(double from, Double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public Double getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
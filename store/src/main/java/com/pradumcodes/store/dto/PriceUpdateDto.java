@@ -0,0 +1,30 @@
+package com.pradumcodes.store.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+public class PriceUpdateDto {
+    @NotNull
+    private Long id;
+
+    // boxed so an entry without a price is rejected instead of arriving as 0.0
+    @NotNull
+    @DecimalMin("0.0")
+    private Double price;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,103 @@
+package com.pradumcodes.store.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PriceUpdateReport {
+
+    private final int maxReported;
+
+    private long received;
+    private long coalesced;
+    private long updated;
+    private long missing;
+    private long failed;
+    private final List<Long> missingIds = new ArrayList<>();
+    private final List<ItemError> errors = new ArrayList<>();
+    private boolean truncated;
+
+    public PriceUpdateReport(int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    public void received(long count) {
+        received += count;
+    }
+
+    public void coalesced(long count) {
+        coalesced += count;
+    }
+
+    public void updated(long count) {
+        updated += count;
+    }
+
+    public void missing(Long id) {
+        missing++;
+        if (missingIds.size() < maxReported) {
+            missingIds.add(id);
+        } else {
+            truncated = true;
+        }
+    }
+
+    public void failed(Long id, long count, String message) {
+        failed += count;
+        if (errors.size() < maxReported) {
+            errors.add(new ItemError(id, message));
+        } else {
+            truncated = true;
+        }
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    // duplicate ids in the request; only the last price for each id is applied
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public static class ItemError {
+        private final Long id;
+        private final String message;
+
+        public ItemError(Long id, String message) {
+            this.id = id;
+            this.message = message;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
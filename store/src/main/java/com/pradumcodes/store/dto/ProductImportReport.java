@@ -0,0 +1,75 @@
+package com.pradumcodes.store.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportReport {
+
+    private final int maxReportedErrors;
+
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public ProductImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(long count) {
+        imported += count;
+    }
+
+    // only the first maxReportedErrors messages are kept so a bad file can't blow up the response
+    public void failed(long line, long count, String message) {
+        failed += count;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
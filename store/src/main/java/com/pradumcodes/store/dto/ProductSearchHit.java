@@ -0,0 +1,26 @@
+package com.pradumcodes.store.dto;
+
+// same getters as Product so view.html can render search hits and entities alike
+public class ProductSearchHit {
+    private final Long id;
+    private final String name;
+    private final double price;
+
+    public ProductSearchHit(Long id, String name, double price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
@@ -0,0 +1,24 @@
+package com.pradumcodes.store.dto;
+
+import java.util.List;
+
+public class ProductSearchResult {
+    private final List<ProductSearchHit> hits;
+    private final boolean truncated;
+
+    public ProductSearchResult(List<ProductSearchHit> hits, boolean truncated) {
+        this.hits = hits;
+        this.truncated = truncated;
+    }
+
+    // matches ordered by price, then id
+    public List<ProductSearchHit> getHits() {
+        return hits;
+    }
+
+    // true when more products matched than the requested limit, or when a text query stopped after
+    // examining ProductSearchIndex.MAX_SCANNED products (terms that are each common but rarely together)
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
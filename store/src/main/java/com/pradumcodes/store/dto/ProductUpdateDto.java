@@ -13,6 +13,9 @@ public class ProductUpdateDto {
     @DecimalMin("0.0")
     private double price;
 
+    // version the client last saw (required unless an If-Match header is sent); a stale value gets 409 Conflict
+    private Long version;
+
     public String getName() {
         return name;
     }
@@ -28,4 +31,12 @@ public class ProductUpdateDto {
     public void setPrice(double price) {
         this.price = price;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -4,17 +4,28 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 @Entity
 public class Product {
 
+    // ids reserved per sequence call; see ProductIdSequenceInitializer for databases that used IDENTITY before
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // pooled ids (allocated 50 at a time) so Hibernate can batch inserts; IDENTITY forces one INSERT per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
     private double price;
 
+    // bumped on every update; stale writers get a 409/412 instead of silently overwriting
+    @Version
+    private long version;
+
     // JPA requires a default constructor
     public Product() {
     }
@@ -25,6 +36,14 @@ public class Product {
         this.price = price;
     }
 
+    // detached copy of a row whose state is already known (e.g. after a conditional update)
+    public Product(Long id, String name, double price, long version) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.version = version;
+    }
+
     // getters & setters (needed for JPA + Thymeleaf later)
     public Long getId() {
         return id;
@@ -46,8 +65,12 @@ public class Product {
         this.price = price;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
-        return "Product{id=" + id + ", name='" + name + "', price=" + price + "}";
+        return "Product{id=" + id + ", name='" + name + "', price=" + price + ", version=" + version + "}";
     }
 }
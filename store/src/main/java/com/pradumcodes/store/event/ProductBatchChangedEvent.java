@@ -0,0 +1,20 @@
+package com.pradumcodes.store.event;
+
+import java.util.List;
+
+/**
+ * Many product changes committed together (bulk import chunk, bulk price update). Listeners apply
+ * the whole batch at once instead of paying their per-event cost (locking, invalidation) per row.
+ */
+public class ProductBatchChangedEvent {
+
+    private final List<ProductChangedEvent> changes;
+
+    public ProductBatchChangedEvent(List<ProductChangedEvent> changes) {
+        this.changes = changes;
+    }
+
+    public List<ProductChangedEvent> getChanges() {
+        return changes;
+    }
+}
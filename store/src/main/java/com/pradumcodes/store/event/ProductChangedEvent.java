@@ -0,0 +1,86 @@
+package com.pradumcodes.store.event;
+
+import com.pradumcodes.store.entity.Product;
+
+/**
+ * Published after a product row is created, updated or deleted, so in-memory views of the catalog
+ * (search index, statistics) can follow along without re-reading the table.
+ * Carries immutable snapshots because the entity itself may be mutated later.
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final Snapshot before; // null when created, or when an update was applied without reading the row first
+    private final Snapshot after;  // null when deleted
+
+    public ProductChangedEvent(Type type, Long productId, Snapshot before, Snapshot after) {
+        this.type = type;
+        this.productId = productId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), null, Snapshot.of(product));
+    }
+
+    public static ProductChangedEvent updated(Snapshot before, Product product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), before, Snapshot.of(product));
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(Type.DELETED, product.getId(), Snapshot.of(product), null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Snapshot getBefore() {
+        return before;
+    }
+
+    public Snapshot getAfter() {
+        return after;
+    }
+
+    public static class Snapshot {
+        private final String name;
+        private final double price;
+        // the row's @Version at this state; listeners of concurrent transactions may run out of commit order
+        private final long version;
+
+        public Snapshot(String name, double price, long version) {
+            this.name = name;
+            this.price = price;
+            this.version = version;
+        }
+
+        public static Snapshot of(Product product) {
+            return new Snapshot(product.getName(), product.getPrice(), product.getVersion());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
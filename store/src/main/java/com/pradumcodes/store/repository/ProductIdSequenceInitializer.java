@@ -0,0 +1,48 @@
+package com.pradumcodes.store.repository;
+
+import com.pradumcodes.store.entity.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves {@code product_seq} past the existing product ids at startup. Products used {@code IDENTITY} ids before;
+ * on such a database {@code ddl-auto=update} creates the sequence table starting at 1, and the first insert would
+ * collide with an existing row.
+ *
+ * <p>Only needed where Hibernate emulates the sequence with a one-row table (MySQL). With the pooled optimizer a
+ * value {@code v} read from it hands out ids {@code v - allocationSize + 1 .. v}, so the table must hold at least
+ * {@code max(id) + allocationSize}. Databases with native sequences (H2 in tests) are left alone.
+ */
+@Component
+public class ProductIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIdSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductIdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // runs after the schema update and before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long nextValue;
+        try {
+            nextValue = jdbcTemplate.queryForObject("select next_val from product_seq", Long.class);
+        } catch (DataAccessException ex) {
+            return; // native sequence (or no sequence table): nothing to fix
+        }
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from product", Long.class);
+        long required = maxId + Product.ID_ALLOCATION_SIZE;
+        if (maxId > 0 && (nextValue == null || nextValue < required)) {
+            // the where clause keeps this safe if another instance already moved the sequence further
+            jdbcTemplate.update("update product_seq set next_val = ? where next_val < ?", required, required);
+            log.info("Moved product_seq from {} to {} (highest existing product id is {})", nextValue, required, maxId);
+        }
+    }
+}
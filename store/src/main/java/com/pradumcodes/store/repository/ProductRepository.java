@@ -1,10 +1,35 @@
 package com.pradumcodes.store.repository;
 
 import com.pradumcodes.store.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-}
\ No newline at end of file
+    // keyset paging for walking the whole table in bounded pages (used to build in-memory indexes)
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // current version, with the row locked (select ... for update) until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionForUpdate(@Param("id") Long id);
+
+    // single UPDATE instead of findById + save, only if nobody changed the row since the caller read `version`;
+    // returns 0 otherwise. Bulk JPQL skips @Version handling, so the version is bumped by hand
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.name = :name, p.price = :price, p.version = p.version + 1 "
+            + "where p.id = :id and p.version = :version")
+    int updateNameAndPriceIfVersion(@Param("id") Long id, @Param("version") long version,
+                                    @Param("name") String name, @Param("price") double price);
+
+}
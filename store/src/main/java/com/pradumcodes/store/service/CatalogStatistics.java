@@ -0,0 +1,121 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.CatalogStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+/**
+ * Catalog aggregates (count, min/max/average price, count per price band) kept in memory, so reading them
+ * never scans the product table. Holds no per-product data: {@link ProductSearchIndex} owns the loaded
+ * catalog and reports every price it adds or removes, and resets the totals whenever it reconciles.
+ */
+@Service
+public class CatalogStatistics {
+
+    private final double[] bandBounds;
+
+    private final Object lock = new Object();
+    private final long[] bandCounts;
+    private long count;
+    private double sum;
+    private Double minPrice;
+    private Double maxPrice;
+    private Instant lastReconciled;
+    private volatile CatalogStatsDto cached; // cleared on every change, rebuilt on next read
+
+    public CatalogStatistics(@Value("${store.stats.price-bands:0,500,1000,5000,10000}") double[] bandBounds) {
+        this.bandBounds = bandBounds.clone();
+        Arrays.sort(this.bandBounds);
+        this.bandCounts = new long[this.bandBounds.length];
+    }
+
+    public CatalogStatsDto snapshot() {
+        CatalogStatsDto stats = cached;
+        if (stats == null) {
+            synchronized (lock) {
+                stats = toDto();
+                cached = stats;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Replaces the totals with those of a freshly loaded catalog.
+     *
+     * @param min lowest price in the catalog, or null when it is empty
+     * @param max highest price in the catalog, or null when it is empty
+     */
+    void reset(DoubleStream prices, Double min, Double max, Instant reconciledAt) {
+        synchronized (lock) {
+            count = 0;
+            sum = 0;
+            Arrays.fill(bandCounts, 0);
+            prices.forEach(this::addPrice);
+            minPrice = min;
+            maxPrice = max;
+            lastReconciled = reconciledAt;
+            cached = null;
+        }
+    }
+
+    /**
+     * Moves one product from {@code oldPrice} to {@code newPrice}; null for either side means the product was
+     * created or deleted. {@code min} and {@code max} are the catalog's extremes after the change.
+     */
+    void priceChanged(Double oldPrice, Double newPrice, Double min, Double max) {
+        synchronized (lock) {
+            if (oldPrice != null) {
+                removePrice(oldPrice);
+            }
+            if (newPrice != null) {
+                addPrice(newPrice);
+            }
+            minPrice = min;
+            maxPrice = max;
+            cached = null;
+        }
+    }
+
+    private void addPrice(double price) {
+        count++;
+        sum += price;
+        int band = band(price);
+        if (band >= 0) {
+            bandCounts[band]++;
+        }
+    }
+
+    private void removePrice(double price) {
+        count--;
+        sum -= price;
+        int band = band(price);
+        if (band >= 0) {
+            bandCounts[band]--;
+        }
+    }
+
+    // index of the band whose lower bound is the greatest one <= price, or -1 below the first bound
+    private int band(double price) {
+        int i = Arrays.binarySearch(bandBounds, price);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private CatalogStatsDto toDto() {
+        List<CatalogStatsDto.PriceBand> bands = new ArrayList<>(bandBounds.length);
+        for (int i = 0; i < bandBounds.length; i++) {
+            Double to = i + 1 < bandBounds.length ? bandBounds[i + 1] : null;
+            bands.add(new CatalogStatsDto.PriceBand(bandBounds[i], to, bandCounts[i]));
+        }
+        if (count == 0) {
+            return new CatalogStatsDto(0, null, null, null, bands, lastReconciled);
+        }
+        return new CatalogStatsDto(count, minPrice, maxPrice, sum / count, bands, lastReconciled);
+    }
+}
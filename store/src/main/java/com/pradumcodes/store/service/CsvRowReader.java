@@ -0,0 +1,118 @@
+package com.pradumcodes.store.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV reader (RFC 4180 style): comma separated, fields may be quoted with
+ * double quotes, and a doubled quote inside a quoted field is a literal quote.
+ * Only one row is held in memory at a time, and a row may be at most {@code maxRowLength} characters.
+ */
+class CsvRowReader implements Closeable {
+
+    /**
+     * Thrown for a row longer than the limit, e.g. one that starts an unterminated quote. The rest of the
+     * physical line has been skipped, so the next {@link #readRow()} continues with the following line.
+     */
+    static class RowTooLongException extends IOException {
+        RowTooLongException(int maxRowLength) {
+            super("row is longer than " + maxRowLength + " characters (unterminated quote?); skipped to the next line");
+        }
+    }
+
+    private final BufferedReader reader;
+    private final int maxRowLength;
+    private long lineNumber = 1;
+    private long rowLineNumber;
+
+    CsvRowReader(Reader reader, int maxRowLength) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxRowLength = maxRowLength;
+    }
+
+    /**
+     * Reads the next row, or returns null at end of input.
+     *
+     * @throws RowTooLongException if the row exceeds the limit; the reader stays usable
+     */
+    List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        rowLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+
+        while (true) {
+            if (++length > maxRowLength) {
+                skipLine(c);
+                throw new RowTooLongException(maxRowLength);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    // unterminated quote: treat end of input as the closing quote
+                    quoted = false;
+                    continue;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    // drops everything up to and including the next line break, ignoring quotes
+    private void skipLine(int c) throws IOException {
+        while (c != '\n' && c != -1) {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+    }
+
+    /**
+     * Line (1-based) on which the row last returned (or rejected) by {@link #readRow()} started.
+     */
+    long getRowLineNumber() {
+        return rowLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,189 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.ProductImportReport;
+import com.pradumcodes.store.dto.ProductUpdateDto;
+import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.event.ProductBatchChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV of {@code name,price} rows into the product table.
+ * Rows are validated one by one and written in chunks, each chunk in its own transaction,
+ * so memory use stays bounded no matter how large the file is. A chunk the database rejects
+ * is retried row by row, so only the offending rows fail.
+ */
+@Service
+public class ProductImportService {
+
+    // a multiple of hibernate.jdbc.batch_size so every flush sends full JDBC batches
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 100;
+    // a 255-character name, quoting and a price fit easily; longer rows are rejected instead of buffered
+    static final int MAX_ROW_LENGTH = 512;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+
+    // a validated row waiting for its chunk to be written; entities are only created inside the transaction
+    private record PendingRow(long line, String name, double price) {
+    }
+
+    public ProductImportService(EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ApplicationEventPublisher events) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.events = events;
+    }
+
+    public ProductImportReport importCsv(InputStream in) throws IOException {
+        ProductImportReport report = new ProductImportReport(MAX_REPORTED_ERRORS);
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (CsvRowReader reader = new CsvRowReader(new InputStreamReader(in, StandardCharsets.UTF_8), MAX_ROW_LENGTH)) {
+            while (true) {
+                List<String> row;
+                try {
+                    row = reader.readRow();
+                } catch (CsvRowReader.RowTooLongException ex) {
+                    report.rowRead();
+                    report.failed(reader.getRowLineNumber(), 1, ex.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                long line = reader.getRowLineNumber();
+                if (isBlank(row) || (line == 1 && isHeader(row))) {
+                    continue;
+                }
+                report.rowRead();
+
+                PendingRow pending = toPendingRow(row, line, report);
+                if (pending == null) {
+                    continue;
+                }
+                chunk.add(pending);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, report);
+                }
+            }
+        }
+        writeChunk(chunk, report);
+        return report;
+    }
+
+    private PendingRow toPendingRow(List<String> row, long line, ProductImportReport report) {
+        if (row.size() != 2) {
+            report.failed(line, 1, "expected 2 columns (name,price) but found " + row.size());
+            return null;
+        }
+
+        double price;
+        String rawPrice = row.get(1).trim();
+        try {
+            price = Double.parseDouble(rawPrice);
+        } catch (NumberFormatException ex) {
+            report.failed(line, 1, "price: not a number '" + rawPrice + "'");
+            return null;
+        }
+        if (!Double.isFinite(price)) {
+            report.failed(line, 1, "price: must be a finite number");
+            return null;
+        }
+
+        // same rules as the PUT /products/{id} payload
+        ProductUpdateDto dto = new ProductUpdateDto();
+        dto.setName(row.get(0).trim());
+        dto.setPrice(price);
+        Set<ConstraintViolation<ProductUpdateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.failed(line, 1, message);
+            return null;
+        }
+        return new PendingRow(line, dto.getName(), dto.getPrice());
+    }
+
+    private void writeChunk(List<PendingRow> chunk, ProductImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Product> written;
+        try {
+            written = insert(chunk);
+        } catch (DataAccessException | PersistenceException ex) {
+            // one row the database rejects rolls back the whole chunk: redo it one row per transaction
+            written = new ArrayList<>(chunk.size());
+            for (PendingRow row : chunk) {
+                try {
+                    written.addAll(insert(List.of(row)));
+                } catch (DataAccessException | PersistenceException rowEx) {
+                    report.failed(row.line(), 1, "rejected by the database: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowEx).getMessage());
+                }
+            }
+        }
+        report.imported(written.size());
+        if (!written.isEmpty()) {
+            // committed; ids were assigned by persist()
+            List<ProductChangedEvent> changes = new ArrayList<>(written.size());
+            for (Product product : written) {
+                changes.add(ProductChangedEvent.created(product));
+            }
+            events.publishEvent(new ProductBatchChangedEvent(changes));
+        }
+        chunk.clear();
+    }
+
+    private List<Product> insert(List<PendingRow> rows) {
+        List<Product> products = new ArrayList<>(rows.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingRow row : rows) {
+                Product product = new Product(row.name(), row.price());
+                entityManager.persist(product);
+                products.add(product);
+            }
+            entityManager.flush();
+            // detach the chunk so the persistence context doesn't grow with the file
+            entityManager.clear();
+        });
+        return products;
+    }
+
+    private static boolean isBlank(List<String> row) {
+        return row.size() == 1 && row.get(0).isBlank();
+    }
+
+    private static boolean isHeader(List<String> row) {
+        // tolerate a UTF-8 byte order mark written by spreadsheet exports
+        String first = row.get(0).replace("\uFEFF", "").trim();
+        return first.equalsIgnoreCase("name");
+    }
+}
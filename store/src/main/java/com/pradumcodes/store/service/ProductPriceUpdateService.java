@@ -0,0 +1,165 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.PriceUpdateDto;
+import com.pradumcodes.store.dto.PriceUpdateReport;
+import com.pradumcodes.store.event.ProductBatchChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent.Snapshot;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many price changes at once: duplicate ids are coalesced (last one wins), then ids are
+ * processed in chunks, each chunk being one transaction with a single JDBC batch UPDATE.
+ * Listeners are notified once per request rather than once per product.
+ */
+@Service
+public class ProductPriceUpdateService {
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED = 100;
+
+    private static final String LOCK_ROWS_SQL =
+            "select id, name, price, version from product where id in (:ids) for update";
+    private static final String UPDATE_PRICE_SQL =
+            "update product set price = ?, version = version + 1 where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+
+    public ProductPriceUpdateService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     Validator validator,
+                                     ApplicationEventPublisher events) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.events = events;
+    }
+
+    public PriceUpdateReport updatePrices(List<PriceUpdateDto> updates) {
+        PriceUpdateReport report = new PriceUpdateReport(MAX_REPORTED);
+        report.received(updates.size());
+
+        Map<Long, Double> latest = new LinkedHashMap<>();
+        long valid = 0;
+        for (PriceUpdateDto update : updates) {
+            String problem = validate(update);
+            if (problem != null) {
+                report.failed(update == null ? null : update.getId(), 1, problem);
+                continue;
+            }
+            valid++;
+            latest.put(update.getId(), update.getPrice());
+        }
+        report.coalesced(valid - latest.size());
+
+        List<ProductChangedEvent> changes = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(latest.keySet());
+        try {
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                writeChunk(chunk, latest, report, changes);
+            }
+        } finally {
+            // chunks that committed stay committed, so listeners must hear about them even if a later one threw
+            if (!changes.isEmpty()) {
+                events.publishEvent(new ProductBatchChangedEvent(changes));
+            }
+        }
+        return report;
+    }
+
+    private void writeChunk(List<Long> ids, Map<Long, Double> prices,
+                            PriceUpdateReport report, List<ProductChangedEvent> changes) {
+        List<ProductChangedEvent> chunkChanges = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // lock the rows first: tells us which ids exist and gives listeners the previous state
+                Map<Long, Snapshot> before = new HashMap<>();
+                namedJdbcTemplate.query(LOCK_ROWS_SQL, new MapSqlParameterSource("ids", ids), rs -> {
+                    before.put(rs.getLong("id"), new Snapshot(rs.getString("name"), rs.getDouble("price"), rs.getLong("version")));
+                });
+
+                List<Long> present = new ArrayList<>(before.size());
+                for (Long id : ids) {
+                    if (before.containsKey(id)) {
+                        present.add(id);
+                    } else {
+                        missing.add(id);
+                    }
+                }
+
+                if (present.isEmpty()) {
+                    return;
+                }
+                int[][] counts = jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, present, present.size(), (ps, id) -> {
+                    ps.setDouble(1, prices.get(id));
+                    ps.setLong(2, id);
+                });
+                int[] rowCounts = counts[0];
+                for (int i = 0; i < present.size(); i++) {
+                    Long id = present.get(i);
+                    // rows are locked, so SUCCESS_NO_INFO (rewritten batches) still means "updated"
+                    if (rowCounts[i] > 0 || rowCounts[i] == Statement.SUCCESS_NO_INFO) {
+                        Snapshot old = before.get(id);
+                        chunkChanges.add(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id,
+                                old, new Snapshot(old.getName(), prices.get(id), old.getVersion() + 1)));
+                    } else {
+                        missing.add(id);
+                    }
+                }
+            });
+        } catch (DataAccessException | TransactionException ex) {
+            // TransactionException: no connection for the transaction, or the commit itself failed
+            report.failed(ids.get(0), ids.size(),
+                    "chunk of " + ids.size() + " ids starting here was rolled back: "
+                            + NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            return;
+        }
+        report.updated(chunkChanges.size());
+        missing.forEach(report::missing);
+        changes.addAll(chunkChanges);
+    }
+
+    private String validate(PriceUpdateDto update) {
+        if (update == null) {
+            return "entry must be an object with id and price, not null";
+        }
+        Set<ConstraintViolation<PriceUpdateDto>> violations = validator.validate(update);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!Double.isFinite(update.getPrice())) {
+            return "price: must be a finite number";
+        }
+        return null;
+    }
+}
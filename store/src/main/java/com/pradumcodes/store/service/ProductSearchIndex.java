@@ -0,0 +1,397 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.ProductSearchHit;
+import com.pradumcodes.store.dto.ProductSearchResult;
+import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.event.ProductBatchChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent;
+import com.pradumcodes.store.repository.ProductRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of the catalog: a token index on product names (prefix matching, all tokens must match)
+ * and a price-sorted index for range queries. Loaded at startup, kept in sync from {@link ProductChangedEvent}s
+ * and periodically reconciled with the table, so searches never touch the database. It is the only component
+ * that loads products: {@link CatalogStatistics} is fed from here rather than scanning and tracking them itself.
+ */
+@Service
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    public static final int MAX_LIMIT = 500;
+    private static final int LOAD_PAGE_SIZE = 1000;
+    // text queries rank their candidates directly while the rarest term has at most this many per wanted hit
+    private static final int CANDIDATES_PER_HIT = 16;
+    // most entries one text query examines; past that it stops and reports its hits as truncated
+    static final int MAX_SCANNED = 5_000;
+    private static final int REMEMBERED_DELETES = 10_000;
+
+    private static final Comparator<Entry> BY_PRICE =
+            Comparator.comparingDouble(Entry::price).thenComparingLong(Entry::id);
+
+    private final ProductRepository repo;
+    private final CatalogStatistics statistics;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Contents contents = new Contents();
+    private List<ProductChangedEvent> changedDuringReconcile; // non-null while a reconcile is scanning the table
+    // ids come from a sequence and are never reused, so a create/update arriving after the delete is stale;
+    // remembering the latest deletes covers the short window in which such an event can still show up
+    private final Set<Long> recentlyDeleted = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > REMEMBERED_DELETES;
+        }
+    });
+
+    public ProductSearchIndex(ProductRepository repo, CatalogStatistics statistics) {
+        this.repo = repo;
+        this.statistics = statistics;
+    }
+
+    // runs before the web server starts, so no request ever sees a half-built index
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+    }
+
+    /**
+     * Reloads the whole table, which also fixes drift from rows changed outside this application. The scan runs
+     * without holding the lock, so searches and events go on meanwhile; events that arrive during the scan are
+     * replayed onto the fresh copy before it replaces the current one.
+     */
+    @Scheduled(initialDelayString = "${store.stats.reconcile-interval:PT15M}",
+            fixedDelayString = "${store.stats.reconcile-interval:PT15M}")
+    public synchronized void reconcile() {
+        lock.writeLock().lock();
+        try {
+            changedDuringReconcile = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Contents fresh = new Contents();
+        try {
+            long lastId = 0;
+            List<Product> page;
+            do {
+                page = repo.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_PAGE_SIZE));
+                for (Product product : page) {
+                    fresh.add(new Entry(product.getId(), product.getName(), product.getPrice(), product.getVersion()));
+                    lastId = product.getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                changedDuringReconcile = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+        lock.writeLock().lock();
+        try {
+            // the version check skips changes the scan already saw
+            for (ProductChangedEvent event : changedDuringReconcile) {
+                apply(fresh, event);
+            }
+            changedDuringReconcile = null;
+            contents = fresh;
+            statistics.reset(fresh.byPrice.stream().mapToDouble(Entry::price),
+                    fresh.minPrice(), fresh.maxPrice(), Instant.now());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // after commit when published inside a transaction, immediately otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            record(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // one lock acquisition for the whole batch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductBatchChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductChangedEvent change : event.getChanges()) {
+                record(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query    words to look for in the name; each must prefix-match a name token. Blank matches everything.
+     * @param minPrice inclusive lower bound, or null
+     * @param maxPrice inclusive upper bound, or null
+     * @param limit    maximum hits to return, capped at {@link #MAX_LIMIT}
+     * @throws IllegalArgumentException if a bound is NaN or infinite
+     */
+    public ProductSearchResult search(String query, Double minPrice, Double maxPrice, int limit) {
+        if ((minPrice != null && !Double.isFinite(minPrice)) || (maxPrice != null && !Double.isFinite(maxPrice))) {
+            throw new IllegalArgumentException("price bounds must be finite numbers");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        double lo = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double hi = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        Set<String> terms = tokenize(query);
+
+        Matches found;
+        lock.readLock().lock();
+        try {
+            if (lo > hi) {
+                return new ProductSearchResult(List.of(), false);
+            }
+            // max + 1 tells whether there were more matches than returned
+            found = terms.isEmpty()
+                    ? walkPriceRange(lo, hi, terms, max + 1, Integer.MAX_VALUE)
+                    : textMatches(terms, lo, hi, max + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Entry> matches = found.entries();
+        boolean truncated = found.incomplete() || matches.size() > max;
+        List<ProductSearchHit> hits = new ArrayList<>(Math.min(matches.size(), max));
+        for (Entry entry : matches.subList(0, Math.min(matches.size(), max))) {
+            hits.add(new ProductSearchHit(entry.id(), entry.name(), entry.price()));
+        }
+        return new ProductSearchResult(hits, truncated);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return contents.byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the price index is already in result order: walk the range and stop once enough entries match
+    private Matches walkPriceRange(double lo, double hi, Set<String> terms, int wanted, int budget) {
+        List<Entry> matches = new ArrayList<>();
+        int scanned = 0;
+        for (Entry entry : contents.byPrice.subSet(new Entry(Long.MIN_VALUE, null, lo, 0), true,
+                new Entry(Long.MAX_VALUE, null, hi, 0), true)) {
+            if (++scanned > budget) {
+                return new Matches(matches, true);
+            }
+            if (matchesAll(entry.name(), terms)) {
+                matches.add(entry);
+                if (matches.size() == wanted) {
+                    break;
+                }
+            }
+        }
+        return new Matches(matches, false);
+    }
+
+    /*
+     * Never materializes every match: if the rarest term has few postings, only those candidates are checked and
+     * the cheapest `wanted` kept in a bounded heap; otherwise matches are usually common and walking the price
+     * range reaches `wanted` of them quickly. Terms that are each common but rarely appear together would make
+     * that walk cover the whole catalog, so it gives up after MAX_SCANNED entries; the candidates of the rarest
+     * term are checked instead if there are at most that many, else the hits so far are returned as incomplete.
+     * Postings are only counted up to MAX_SCANNED, so sizing even a one-letter prefix stays cheap.
+     */
+    private Matches textMatches(Set<String> terms, double lo, double hi, int wanted) {
+        long threshold = (long) wanted * CANDIDATES_PER_HIT;
+        NavigableMap<String, Set<Long>> rarest = null;
+        long rarestSize = Long.MAX_VALUE;
+        for (String term : terms) {
+            NavigableMap<String, Set<Long>> postings = contents.byToken.subMap(term, true, term + Character.MAX_VALUE, false);
+            if (postings.isEmpty()) {
+                return new Matches(List.of(), false);
+            }
+            long size = 0;
+            for (Set<Long> ids : postings.values()) {
+                size += ids.size();
+                if (size > MAX_SCANNED || size >= rarestSize) {
+                    break;
+                }
+            }
+            if (size < rarestSize) {
+                rarest = postings;
+                rarestSize = size;
+            }
+        }
+        if (rarestSize > threshold) {
+            Matches walked = walkPriceRange(lo, hi, terms, wanted, MAX_SCANNED);
+            if (!walked.incomplete() || rarestSize > MAX_SCANNED) {
+                return walked;
+            }
+        }
+
+        PriorityQueue<Entry> best = new PriorityQueue<>(BY_PRICE.reversed()); // most expensive kept hit on top
+        Set<Long> seen = rarest.size() > 1 ? new HashSet<>() : null;         // an id can sit under several tokens
+        for (Set<Long> ids : rarest.values()) {
+            for (Long id : ids) {
+                if (seen != null && !seen.add(id)) {
+                    continue;
+                }
+                Entry entry = contents.byId.get(id);
+                if (entry.price() < lo || entry.price() > hi || !matchesAll(entry.name(), terms)) {
+                    continue;
+                }
+                best.add(entry);
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+        }
+        List<Entry> matches = new ArrayList<>(best);
+        matches.sort(BY_PRICE);
+        return new Matches(matches, false);
+    }
+
+    private static boolean matchesAll(String name, Set<String> terms) {
+        for (String term : terms) {
+            if (!hasTokenWithPrefix(name, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // same rule as the token index (a word of the name starts with the lower-case term), without allocating
+    static boolean hasTokenWithPrefix(String name, String term) {
+        for (int i = 0; i + term.length() <= name.length(); i++) {
+            boolean tokenStart = Character.isLetterOrDigit(name.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+            if (tokenStart && name.regionMatches(true, i, term, 0, term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // applies a change to the live copy, reports the price move to the statistics and keeps it for a running reconcile
+    private void record(ProductChangedEvent event) {
+        Long id = event.getProductId();
+        Entry before = contents.byId.get(id);
+        apply(contents, event);
+        Entry after = contents.byId.get(id);
+        if (before != after) {
+            statistics.priceChanged(before == null ? null : before.price(), after == null ? null : after.price(),
+                    contents.minPrice(), contents.maxPrice());
+        }
+        if (changedDuringReconcile != null) {
+            changedDuringReconcile.add(event);
+        }
+    }
+
+    // after-commit listeners of concurrent transactions can run out of order: only a newer version replaces an entry
+    private void apply(Contents target, ProductChangedEvent event) {
+        Long id = event.getProductId();
+        ProductChangedEvent.Snapshot after = event.getAfter();
+        if (after == null) {
+            target.remove(id);
+            recentlyDeleted.add(id);
+            return;
+        }
+        Entry current = target.byId.get(id);
+        if ((current != null && current.version() >= after.getVersion()) || recentlyDeleted.contains(id)) {
+            return;
+        }
+        target.remove(id);
+        target.add(new Entry(id, after.getName(), after.getPrice(), after.getVersion()));
+    }
+
+    // lower-cased runs of letters/digits: "USB-C Cable (2m)" -> [usb, c, cable, 2m]
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record Entry(long id, String name, double price, long version) {
+    }
+
+    // incomplete: the scan budget ran out; the entries are the cheapest matches, but more may exist
+    private record Matches(List<Entry> entries, boolean incomplete) {
+    }
+
+    // the three views of one catalog copy; a reconcile builds a new one and swaps it in whole
+    private static final class Contents {
+        private final Map<Long, Entry> byId = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> byToken = new TreeMap<>();
+        private final NavigableSet<Entry> byPrice = new TreeSet<>(BY_PRICE);
+
+        void add(Entry entry) {
+            byId.put(entry.id(), entry);
+            byPrice.add(entry);
+            for (String token : tokenize(entry.name())) {
+                byToken.computeIfAbsent(token, t -> new HashSet<>()).add(entry.id());
+            }
+        }
+
+        void remove(Long id) {
+            Entry old = byId.remove(id);
+            if (old == null) {
+                return;
+            }
+            byPrice.remove(old);
+            for (String token : tokenize(old.name())) {
+                Set<Long> ids = byToken.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        byToken.remove(token);
+                    }
+                }
+            }
+        }
+
+        Double minPrice() {
+            return byPrice.isEmpty() ? null : byPrice.first().price();
+        }
+
+        Double maxPrice() {
+            return byPrice.isEmpty() ? null : byPrice.last().price();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.pradumcodes.store.service;
 
 import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.event.ProductChangedEvent;
 import com.pradumcodes.store.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,9 +13,14 @@ import java.util.Optional;
 public class ProductService {
 
     private final ProductRepository repo;
+    private final ApplicationEventPublisher events;
+    private final CatalogStatistics catalogStatistics;
 
-    public ProductService(ProductRepository repo) {
+    public ProductService(ProductRepository repo, ApplicationEventPublisher events,
+                          CatalogStatistics catalogStatistics) {
         this.repo = repo;
+        this.events = events;
+        this.catalogStatistics = catalogStatistics;
     }
 
     public List<Product> findAll() {
@@ -20,26 +28,61 @@ public class ProductService {
     }
 
     public Product save(Product product) {
-        return repo.save(product);
+        // new products need no lookup; re-saving an existing one needs its old state for listeners
+        ProductChangedEvent.Snapshot before = product.getId() == null ? null
+                : repo.findById(product.getId()).map(ProductChangedEvent.Snapshot::of).orElse(null);
+        Product saved = repo.save(product);
+        events.publishEvent(before == null ? ProductChangedEvent.created(saved) : ProductChangedEvent.updated(before, saved));
+        return saved;
     }
 
     public void deleteById(Long id) {
-        repo.deleteById(id);
+        // same lookup deleteById does internally, but we keep the row to tell listeners what went away
+        repo.findById(id).ifPresent(product -> {
+            repo.delete(product);
+            events.publishEvent(ProductChangedEvent.deleted(product));
+        });
     }
 
     public Optional<Product> findById(Long id) {
         return repo.findById(id);
     }
 
-    public Product updateProduct(Long id, Product updatedProduct) {
-        return repo.findById(id).map(product -> {
-            product.setName(updatedProduct.getName());
-            product.setPrice(updatedProduct.getPrice());
-            return repo.save(product);
-        }).orElse(null);
+    /**
+     * Applies name and price with one conditional UPDATE ({@code ... where id = ? and version = ?}): no read and
+     * no merge. The new version is {@code expectedVersion + 1}, so nothing has to be read back either; only a
+     * failed update pays for a second query, to tell a missing product from a stale version.
+     *
+     * @param expectedVersion version the caller last saw, or {@code null} for {@code If-Match: *} (any version);
+     *                        that case locks the row to learn its version first, i.e. takes two statements
+     */
+    @Transactional
+    public ProductUpdateResult updateProduct(Long id, Product updatedProduct, Long expectedVersion) {
+        String name = updatedProduct.getName();
+        double price = updatedProduct.getPrice();
+
+        long version;
+        if (expectedVersion != null) {
+            version = expectedVersion;
+        } else {
+            Optional<Long> current = repo.findVersionForUpdate(id);
+            if (current.isEmpty()) {
+                return ProductUpdateResult.notFound();
+            }
+            version = current.get();
+        }
+
+        if (repo.updateNameAndPriceIfVersion(id, version, name, price) == 0) {
+            return repo.existsById(id) ? ProductUpdateResult.versionMismatch() : ProductUpdateResult.notFound();
+        }
+        Product product = new Product(id, name, price, version + 1);
+        // published after commit; the previous state wasn't read, so listeners get before == null
+        events.publishEvent(ProductChangedEvent.updated(null, product));
+        return ProductUpdateResult.updated(product);
     }
 
+    // served from the in-memory aggregates instead of a count(*) per call
     public long countProducts() {
-        return repo.count();
+        return catalogStatistics.snapshot().getCount();
     }
 }
@@ -0,0 +1,40 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.entity.Product;
+
+public class ProductUpdateResult {
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        VERSION_MISMATCH
+    }
+
+    private final Status status;
+    private final Product product; // only set when UPDATED
+
+    private ProductUpdateResult(Status status, Product product) {
+        this.status = status;
+        this.product = product;
+    }
+
+    public static ProductUpdateResult updated(Product product) {
+        return new ProductUpdateResult(Status.UPDATED, product);
+    }
+
+    public static ProductUpdateResult notFound() {
+        return new ProductUpdateResult(Status.NOT_FOUND, null);
+    }
+
+    public static ProductUpdateResult versionMismatch() {
+        return new ProductUpdateResult(Status.VERSION_MISMATCH, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+}
@@ -0,0 +1,145 @@
+package com.pradumcodes.store.controller;
+
+import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ProductControllerTests {
+
+	private static final long MISSING_ID = 999_999_999L;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ProductRepository repo;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		product = repo.save(new Product("Controller Lamp", 100)); // version 0
+	}
+
+	@Test
+	void successfulUpdateReturnsNewVersionAsETag() throws Exception {
+		mvc.perform(update(product.getId(), null).header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.version").value(1))
+				.andExpect(jsonPath("$.price").value(150.0));
+
+		mvc.perform(update(product.getId(), 1L))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+		assertEquals(2, repo.findById(product.getId()).orElseThrow().getVersion());
+	}
+
+	@Test
+	void staleIfMatchIsPreconditionFailed() throws Exception {
+		mvc.perform(update(product.getId(), null).header(HttpHeaders.IF_MATCH, "\"7\""))
+				.andExpect(status().isPreconditionFailed());
+		mvc.perform(update(product.getId(), null).header(HttpHeaders.IF_MATCH, "W/\"0\""))
+				.andExpect(status().isPreconditionFailed());
+		assertEquals(100, repo.findById(product.getId()).orElseThrow().getPrice());
+	}
+
+	@Test
+	void staleBodyVersionIsConflict() throws Exception {
+		mvc.perform(update(product.getId(), 7L))
+				.andExpect(status().isConflict());
+		assertEquals(0, repo.findById(product.getId()).orElseThrow().getVersion());
+	}
+
+	@Test
+	void ifMatchAnyRequiresAnExistingProduct() throws Exception {
+		mvc.perform(update(MISSING_ID, null).header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isPreconditionFailed());
+		mvc.perform(update(product.getId(), null).header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+	}
+
+	@Test
+	void missingProductWithBodyVersionIsNotFound() throws Exception {
+		mvc.perform(update(MISSING_ID, 0L))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void updateWithoutAnyVersionStillWorks() throws Exception {
+		mvc.perform(update(product.getId(), null))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+		mvc.perform(update(MISSING_ID, null))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void getReturnsTheETagThatAConditionalUpdateSendsBack() throws Exception {
+		String etag = mvc.perform(get("/products/{id}", product.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(0))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertEquals("\"0\"", etag);
+
+		mvc.perform(update(product.getId(), null).header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+		// a second client still holding the old tag
+		mvc.perform(update(product.getId(), null).header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isPreconditionFailed());
+
+		mvc.perform(get("/products/{id}", product.getId()))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.price").value(150.0));
+		mvc.perform(get("/products/{id}", MISSING_ID))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void searchRejectsNonFinitePriceBounds() throws Exception {
+		mvc.perform(get("/products/search").param("minPrice", "NaN"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(get("/products/search").param("maxPrice", "Infinity"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(get("/products/search").param("q", "controller lamp").param("minPrice", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.hits[0].name").value("Controller Lamp"));
+	}
+
+	@Test
+	void bulkPriceUpdateReportsMissingPricesAndNullEntriesPerItem() throws Exception {
+		mvc.perform(put("/products/prices").contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"id\": " + product.getId() + "}, null]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.failed").value(2))
+				.andExpect(jsonPath("$.updated").value(0));
+		assertEquals(100, repo.findById(product.getId()).orElseThrow().getPrice());
+	}
+
+	private static MockHttpServletRequestBuilder update(long id, Long version) {
+		String body = "{\"name\": \"Controller Lamp\", \"price\": 150"
+				+ (version == null ? "" : ", \"version\": " + version) + "}";
+		return put("/products/{id}", id).contentType(MediaType.APPLICATION_JSON).content(body);
+	}
+}
@@ -0,0 +1,48 @@
+package com.pradumcodes.store.repository;
+
+import com.pradumcodes.store.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// MySQL dialect on H2 so the sequence is emulated with a product_seq table, as in production
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sequence;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles("h2")
+class ProductIdSequenceInitializerTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductIdSequenceInitializer initializer;
+
+	@Autowired
+	private ProductRepository repo;
+
+	@Test
+	void movesSequencePastRowsInsertedWithIdentityIds() {
+		// a database from before pooled ids: rows 1..120 and a freshly created sequence table
+		for (long id = 1; id <= 120; id++) {
+			jdbcTemplate.update("insert into product (id, name, price, version) values (?, ?, ?, 0)", id, "old " + id, 1.0);
+		}
+		jdbcTemplate.update("update product_seq set next_val = 1");
+
+		initializer.afterSingletonsInstantiated();
+		assertEquals(170, jdbcTemplate.queryForObject("select next_val from product_seq", Long.class));
+
+		Product saved = repo.save(new Product("new", 2));
+		assertTrue(saved.getId() > 120, "id " + saved.getId());
+
+		// running again (e.g. next restart) never moves the sequence backwards
+		initializer.afterSingletonsInstantiated();
+		assertTrue(jdbcTemplate.queryForObject("select next_val from product_seq", Long.class) >= 170);
+	}
+}
@@ -0,0 +1,94 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.CatalogStatsDto;
+import com.pradumcodes.store.dto.ProductSearchHit;
+import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.event.ProductBatchChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent.Snapshot;
+import com.pradumcodes.store.event.ProductChangedEvent.Type;
+import com.pradumcodes.store.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogStatisticsTests {
+
+	private final ProductRepository repo = mock(ProductRepository.class);
+	private final CatalogStatistics statistics = new CatalogStatistics(new double[]{0, 500, 1000});
+	private final ProductSearchIndex index = new ProductSearchIndex(repo, statistics);
+
+	@Test
+	void followsCreatesUpdatesAndDeletes() {
+		index.onProductsChanged(new ProductBatchChangedEvent(List.of(
+				created(1L, 100), created(2L, 700), created(3L, 1500), created(4L, 200))));
+		// single-statement updates don't know the previous price
+		index.onProductChanged(new ProductChangedEvent(Type.UPDATED, 4L, null, new Snapshot("p", 900, 1)));
+		index.onProductChanged(new ProductChangedEvent(Type.DELETED, 3L, new Snapshot("p", 1500, 0), null));
+
+		CatalogStatsDto stats = statistics.snapshot();
+		assertEquals(3, stats.getCount());
+		assertEquals(100, stats.getMinPrice());
+		assertEquals(900, stats.getMaxPrice());
+		assertEquals(1700 / 3.0, stats.getAveragePrice(), 1e-9);
+		assertEquals(List.of(1L, 2L, 0L), bandCounts(stats));
+		assertNull(stats.getBands().get(2).getTo());
+	}
+
+	@Test
+	void emptyCatalogHasNoPrices() {
+		CatalogStatsDto stats = statistics.snapshot();
+		assertEquals(0, stats.getCount());
+		assertNull(stats.getMinPrice());
+		assertNull(stats.getAveragePrice());
+	}
+
+	@Test
+	void reconcileReplaysChangesThatArriveDuringTheScan() {
+		// drift: a product the table no longer has
+		index.onProductChanged(created(99L, 5000));
+		when(repo.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+			// committed after the scan read these rows
+			index.onProductChanged(new ProductChangedEvent(Type.UPDATED, 2L, null, new Snapshot("p", 900, 1)));
+			index.onProductChanged(new ProductChangedEvent(Type.DELETED, 3L, new Snapshot("p", 1500, 0), null));
+			index.onProductChanged(created(4L, 50));
+			// an older state of a row the scan already read at version 2
+			index.onProductChanged(new ProductChangedEvent(Type.UPDATED, 1L, null, new Snapshot("p", 200, 1)));
+			return List.of(new Product(1L, "p", 300, 2), new Product(2L, "p", 700, 0), new Product(3L, "p", 1500, 0));
+		});
+
+		index.reconcile();
+
+		assertEquals(List.of(4L, 1L, 2L),
+				index.search("", null, null, 10).getHits().stream().map(ProductSearchHit::getId).toList());
+		CatalogStatsDto stats = statistics.snapshot();
+		assertEquals(3, stats.getCount());
+		assertEquals(50, stats.getMinPrice());
+		assertEquals(900, stats.getMaxPrice());
+		assertEquals(1250 / 3.0, stats.getAveragePrice(), 1e-9);
+		assertEquals(List.of(2L, 1L, 0L), bandCounts(stats));
+		assertNotNull(stats.getLastReconciled());
+
+		// back to following events once the reconcile is done
+		index.onProductChanged(new ProductChangedEvent(Type.DELETED, 4L, new Snapshot("p", 50, 0), null));
+		assertEquals(300, statistics.snapshot().getMinPrice());
+	}
+
+	private static List<Long> bandCounts(CatalogStatsDto stats) {
+		return stats.getBands().stream().map(CatalogStatsDto.PriceBand::getCount).toList();
+	}
+
+	private static ProductChangedEvent created(Long id, double price) {
+		return new ProductChangedEvent(Type.CREATED, id, null, new Snapshot("p", price, 0));
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.pradumcodes.store.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRowReaderTests {
+
+	@Test
+	void readsPlainAndQuotedFields() throws IOException {
+		CsvRowReader reader = new CsvRowReader(new StringReader(
+				"name,price\r\n\"Mouse, wireless\",499\n\"12\"\" ruler\",25.5\n"), 100);
+
+		assertEquals(List.of("name", "price"), reader.readRow());
+		assertEquals(List.of("Mouse, wireless", "499"), reader.readRow());
+		assertEquals(List.of("12\" ruler", "25.5"), reader.readRow());
+		assertNull(reader.readRow());
+	}
+
+	@Test
+	void tracksStartLineOfMultiLineRows() throws IOException {
+		CsvRowReader reader = new CsvRowReader(new StringReader("\"line one\nline two\",10\nlast,1"), 100);
+
+		assertEquals(List.of("line one\nline two", "10"), reader.readRow());
+		assertEquals(1, reader.getRowLineNumber());
+		assertEquals(List.of("last", "1"), reader.readRow());
+		assertEquals(3, reader.getRowLineNumber());
+		assertNull(reader.readRow());
+	}
+
+	@Test
+	void rejectsOverlongRowsAndResumesOnTheNextLine() throws IOException {
+		// the quote is never closed: without a limit the rest of the input would become one field
+		CsvRowReader reader = new CsvRowReader(new StringReader(
+				"ok,1\n\"open,2\n" + "filler,3\n".repeat(20) + "x".repeat(500) + "\nnext,4\n"), 100);
+
+		assertEquals(List.of("ok", "1"), reader.readRow());
+		assertThrows(CsvRowReader.RowTooLongException.class, reader::readRow);
+		assertEquals(2, reader.getRowLineNumber());
+		// the limit is hit on line 13; reading resumes with line 14
+		assertEquals(List.of("filler", "3"), reader.readRow());
+		assertEquals(14, reader.getRowLineNumber());
+		for (int i = 0; i < 8; i++) {
+			reader.readRow();
+		}
+		assertThrows(CsvRowReader.RowTooLongException.class, reader::readRow);
+		assertEquals(List.of("next", "4"), reader.readRow());
+		assertEquals(24, reader.getRowLineNumber());
+		assertNull(reader.readRow());
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.ProductImportReport;
+import com.pradumcodes.store.dto.ProductImportReport.RowError;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProductImportServiceTests {
+
+	@Autowired
+	private ProductImportService importService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void skipsHeaderAndBlankLinesAndReportsBadRowsByLine() throws IOException {
+		ProductImportReport report = importCsv("""
+				name,price
+				Import Widget,10
+
+				"Import Gadget, large",20.5
+				,5
+				Thing,abc
+				Thing,-1
+				a,b,c
+				Thing,Infinity
+				""");
+
+		assertEquals(7, report.getRowsRead());
+		assertEquals(2, report.getImported());
+		assertEquals(5, report.getFailed());
+		assertFalse(report.isErrorsTruncated());
+		assertEquals(List.of(5L, 6L, 7L, 8L, 9L), report.getErrors().stream().map(RowError::getLine).toList());
+		assertTrue(message(report, 0).startsWith("name: "), message(report, 0));
+		assertEquals("price: not a number 'abc'", message(report, 1));
+		assertTrue(message(report, 2).startsWith("price: "), message(report, 2));
+		assertEquals("expected 2 columns (name,price) but found 3", message(report, 3));
+		assertEquals("price: must be a finite number", message(report, 4));
+		assertEquals(2, countNamed("Import Widget", "Import Gadget, large"));
+	}
+
+	@Test
+	void rejectsAnUnterminatedQuoteWithoutSwallowingTheRest() throws IOException {
+		StringBuilder csv = new StringBuilder("Quote Lamp,10\n\"Quote Broken,20\n");
+		for (int i = 0; i < 60; i++) {
+			csv.append("Quote Filler ").append(i).append(",1\n");
+		}
+
+		ProductImportReport report = importCsv(csv.toString());
+
+		assertEquals(1, report.getFailed());
+		assertEquals(2, report.getErrors().get(0).getLine());
+		assertTrue(message(report, 0).startsWith("row is longer than " + ProductImportService.MAX_ROW_LENGTH), message(report, 0));
+		// the oversized row ends at the line where the limit was hit; everything after it is imported
+		long imported = jdbcTemplate.queryForObject("select count(*) from product where name like 'Quote %'", Long.class);
+		assertEquals(report.getImported(), imported);
+		assertTrue(imported > 20, imported + " rows imported");
+		assertEquals(2, countNamed("Quote Lamp", "Quote Filler 59"));
+	}
+
+	@Test
+	void keepsOnlyTheFirstErrors() throws IOException {
+		StringBuilder csv = new StringBuilder();
+		int bad = ProductImportService.MAX_REPORTED_ERRORS + 5;
+		for (int i = 0; i < bad; i++) {
+			csv.append("broken ").append(i).append(",x\n");
+		}
+
+		ProductImportReport report = importCsv(csv.toString());
+
+		assertEquals(bad, report.getFailed());
+		assertEquals(ProductImportService.MAX_REPORTED_ERRORS, report.getErrors().size());
+		assertTrue(report.isErrorsTruncated());
+	}
+
+	@Test
+	void retriesARejectedChunkRowByRow() throws IOException {
+		jdbcTemplate.execute("alter table product add constraint no_boom check (name <> 'boom')");
+		try {
+			ProductImportReport report = importCsv("""
+					name,price
+					Chunk One,1
+					boom,2
+					Chunk Three,3
+					""");
+
+			assertEquals(3, report.getRowsRead());
+			assertEquals(2, report.getImported());
+			assertEquals(1, report.getFailed());
+			assertEquals(1, report.getErrors().size());
+			assertEquals(3, report.getErrors().get(0).getLine());
+			assertTrue(message(report, 0).startsWith("rejected by the database: "), message(report, 0));
+			assertEquals(2, countNamed("Chunk One", "Chunk Three"));
+		} finally {
+			jdbcTemplate.execute("alter table product drop constraint no_boom");
+		}
+	}
+
+	private ProductImportReport importCsv(String csv) throws IOException {
+		return importService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String message(ProductImportReport report, int index) {
+		return report.getErrors().get(index).getMessage();
+	}
+
+	private int countNamed(String... names) {
+		return jdbcTemplate.queryForObject("select count(*) from product where name in (?, ?)", Integer.class,
+				(Object[]) names);
+	}
+}
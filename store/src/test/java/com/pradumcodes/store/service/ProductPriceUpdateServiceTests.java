@@ -0,0 +1,150 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.PriceUpdateDto;
+import com.pradumcodes.store.dto.PriceUpdateReport;
+import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.repository.ProductRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProductPriceUpdateServiceTests {
+
+	@Autowired
+	private ProductPriceUpdateService priceUpdateService;
+
+	@Autowired
+	private ProductRepository repo;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ApplicationEventPublisher events;
+
+	@Test
+	void coalescesDuplicatesAndReportsMissingAndInvalid() {
+		Product mouse = repo.save(new Product("Mouse", 500));
+		Product cable = repo.save(new Product("Cable", 100));
+		searchIndex.reconcile();
+
+		PriceUpdateReport report = priceUpdateService.updatePrices(List.of(
+				update(mouse.getId(), 450.0),
+				update(cable.getId(), 90.0),
+				update(mouse.getId(), 400.0), // last one wins
+				update(-1L, 10.0),
+				update(null, 10.0),
+				update(cable.getId(), -5.0)));
+
+		assertEquals(6, report.getReceived());
+		assertEquals(1, report.getCoalesced());
+		assertEquals(2, report.getUpdated());
+		assertEquals(1, report.getMissing());
+		assertEquals(2, report.getFailed());
+		assertEquals(List.of(-1L), report.getMissingIds());
+
+		Product updatedMouse = repo.findById(mouse.getId()).orElseThrow();
+		assertEquals(400, updatedMouse.getPrice());
+		assertEquals(mouse.getVersion() + 1, updatedMouse.getVersion());
+		assertEquals(90, repo.findById(cable.getId()).orElseThrow().getPrice());
+		assertEquals(400, searchIndex.search("mouse", null, null, 10).getHits().get(0).getPrice());
+	}
+
+	@Test
+	void rejectsEntriesWithoutPriceAndNullEntries() {
+		Product lamp = repo.save(new Product("Price Lamp", 250));
+
+		PriceUpdateReport report = priceUpdateService.updatePrices(Arrays.asList(
+				update(lamp.getId(), null),
+				null));
+
+		assertEquals(2, report.getReceived());
+		assertEquals(0, report.getUpdated());
+		assertEquals(2, report.getFailed());
+		assertEquals(lamp.getId(), report.getErrors().get(0).getId());
+		assertTrue(report.getErrors().get(0).getMessage().startsWith("price: "));
+		assertNull(report.getErrors().get(1).getId());
+		assertEquals(250, repo.findById(lamp.getId()).orElseThrow().getPrice());
+	}
+
+	@Test
+	void chunksThatCommittedReachTheIndexWhenALaterChunkFails() {
+		Product chair = repo.save(new Product("Failover Chair", 700));
+		searchIndex.reconcile();
+		// the second chunk can't get a connection
+		ProductPriceUpdateService service = new ProductPriceUpdateService(
+				jdbcTemplate, failingAfter(1, transactionManager), validator, events);
+
+		List<PriceUpdateDto> updates = new ArrayList<>();
+		updates.add(update(chair.getId(), 650.0));
+		for (long id = -1; updates.size() <= ProductPriceUpdateService.CHUNK_SIZE; id--) {
+			updates.add(update(id, 1.0));
+		}
+		PriceUpdateReport report = service.updatePrices(updates);
+
+		assertEquals(1, report.getUpdated());
+		assertEquals(1, report.getFailed());
+		assertTrue(report.getErrors().get(0).getMessage().contains("rolled back"));
+		assertEquals(650, repo.findById(chair.getId()).orElseThrow().getPrice());
+		assertEquals(650, searchIndex.search("failover", null, null, 10).getHits().get(0).getPrice());
+	}
+
+	private static PlatformTransactionManager failingAfter(int transactions, PlatformTransactionManager delegate) {
+		return new PlatformTransactionManager() {
+			private int started;
+
+			@Override
+			public TransactionStatus getTransaction(TransactionDefinition definition) {
+				if (started++ >= transactions) {
+					throw new CannotCreateTransactionException("connection pool exhausted");
+				}
+				return delegate.getTransaction(definition);
+			}
+
+			@Override
+			public void commit(TransactionStatus status) {
+				delegate.commit(status);
+			}
+
+			@Override
+			public void rollback(TransactionStatus status) {
+				delegate.rollback(status);
+			}
+		};
+	}
+
+	private static PriceUpdateDto update(Long id, Double price) {
+		PriceUpdateDto dto = new PriceUpdateDto();
+		dto.setId(id);
+		dto.setPrice(price);
+		return dto;
+	}
+
+}
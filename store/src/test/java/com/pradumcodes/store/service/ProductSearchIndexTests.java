@@ -0,0 +1,149 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.dto.ProductSearchHit;
+import com.pradumcodes.store.dto.ProductSearchResult;
+import com.pradumcodes.store.event.ProductBatchChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent;
+import com.pradumcodes.store.event.ProductChangedEvent.Snapshot;
+import com.pradumcodes.store.event.ProductChangedEvent.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTests {
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex(null, new CatalogStatistics(new double[]{0}));
+		created(1L, "Wireless Mouse", 799);
+		created(2L, "Wired Mouse", 299);
+		created(3L, "Wireless Keyboard", 1499);
+		created(4L, "USB-C Cable", 199);
+	}
+
+	@Test
+	void matchesAllTermsByPrefixOrderedByPrice() {
+		assertEquals(List.of(2L, 1L), ids(index.search("mou wire", null, null, 10)));
+		assertEquals(List.of(1L, 3L), ids(index.search("WIRELESS", null, null, 10)));
+		assertEquals(List.of(4L), ids(index.search("usb c", null, null, 10)));
+		assertTrue(index.search("trackpad", null, null, 10).getHits().isEmpty());
+	}
+
+	@Test
+	void priceRangeIsInclusiveAndTruncatesAtLimit() {
+		assertEquals(List.of(2L, 1L), ids(index.search(null, 299.0, 799.0, 10)));
+
+		ProductSearchResult limited = index.search("", null, null, 2);
+		assertEquals(List.of(4L, 2L), ids(limited));
+		assertTrue(limited.isTruncated());
+	}
+
+	@Test
+	void rejectsNonFiniteBounds() {
+		assertThrows(IllegalArgumentException.class, () -> index.search(null, Double.NaN, null, 10));
+		assertThrows(IllegalArgumentException.class, () -> index.search("mouse", null, Double.POSITIVE_INFINITY, 10));
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		index.onProductChanged(new ProductChangedEvent(Type.UPDATED, 2L, new Snapshot("Wired Mouse", 299, 0), new Snapshot("Gaming Mouse", 2499, 1)));
+		index.onProductChanged(new ProductChangedEvent(Type.DELETED, 1L, new Snapshot("Wireless Mouse", 799, 0), null));
+
+		assertTrue(index.search("wired", null, null, 10).getHits().isEmpty());
+		assertEquals(List.of(2L), ids(index.search("mouse", 2000.0, null, 10)));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void ignoresEventsThatArriveAfterANewerOne() {
+		// two committed updates whose after-commit listeners ran in the wrong order
+		index.onProductChanged(updated(2L, "Gaming Mouse", 2499, 2));
+		index.onProductChanged(updated(2L, "Office Mouse", 399, 1));
+		assertEquals(List.of(2L), ids(index.search("gaming", null, null, 10)));
+		assertTrue(index.search("office", null, null, 10).getHits().isEmpty());
+
+		// an update that committed before the delete but was delivered after it
+		index.onProductChanged(new ProductChangedEvent(Type.DELETED, 3L, new Snapshot("Wireless Keyboard", 1499, 4), null));
+		index.onProductChanged(updated(3L, "Wireless Keyboard", 999, 3));
+		assertTrue(index.search("keyboard", null, null, 10).getHits().isEmpty());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void commonPrefixesReturnTheCheapestMatchesWithoutRankingEveryone() {
+		List<ProductChangedEvent> items = new ArrayList<>();
+		for (long id = 100; id < 20_100; id++) {
+			items.add(new ProductChangedEvent(Type.CREATED, id, null, new Snapshot("Item " + id, 20_100 - id, 0)));
+		}
+		index.onProductsChanged(new ProductBatchChangedEvent(items));
+
+		// "i" matches every item (price walk), "item 20" only a few (ranked candidates)
+		ProductSearchResult common = index.search("i", 1.0, null, 3);
+		assertEquals(List.of(20_099L, 20_098L, 20_097L), ids(common));
+		assertTrue(common.isTruncated());
+
+		// 2009 and 20090..20099; the expensive 2009 is the one left out
+		ProductSearchResult rare = index.search("item 2009", null, null, 10);
+		assertEquals(List.of(20_099L, 20_098L, 20_097L, 20_096L, 20_095L, 20_094L, 20_093L, 20_092L, 20_091L, 20_090L),
+				ids(rare));
+		assertTrue(rare.isTruncated());
+		assertFalse(index.search("item 2009", null, null, 11).isTruncated());
+		assertEquals(List.of(20_090L), ids(index.search("item 20090", null, 50.0, 10)));
+	}
+
+	@Test
+	void termsThatAreCommonButRarelyTogetherAreBounded() {
+		// "alpha" and "beta" each match many cheap products; only the most expensive one matches both
+		int scanned = ProductSearchIndex.MAX_SCANNED;
+		List<ProductChangedEvent> items = new ArrayList<>();
+		long id = 100;
+		for (int i = 0; i < scanned / 2; i++, id++) {
+			items.add(new ProductChangedEvent(Type.CREATED, id, null, new Snapshot("Alpha " + id, 10, 0)));
+		}
+		for (int i = 0; i < scanned * 2; i++, id++) {
+			items.add(new ProductChangedEvent(Type.CREATED, id, null, new Snapshot("Beta " + id, 10, 0)));
+		}
+		long both = id++;
+		items.add(new ProductChangedEvent(Type.CREATED, both, null, new Snapshot("Alpha Beta", 100_000, 0)));
+		index.onProductsChanged(new ProductBatchChangedEvent(items));
+
+		// the price walk gives up, and the rarer term is small enough to check every candidate
+		ProductSearchResult exact = index.search("alpha beta", null, null, 10);
+		assertEquals(List.of(both), ids(exact));
+		assertFalse(exact.isTruncated());
+
+		// both terms now exceed the scan budget: no full-catalog walk, the result says it is incomplete
+		items.clear();
+		for (int i = 0; i < scanned; i++, id++) {
+			items.add(new ProductChangedEvent(Type.CREATED, id, null, new Snapshot("Alpha " + id, 10, 0)));
+		}
+		index.onProductsChanged(new ProductBatchChangedEvent(items));
+		ProductSearchResult bounded = index.search("alpha beta", null, null, 10);
+		assertTrue(bounded.getHits().isEmpty());
+		assertTrue(bounded.isTruncated());
+		// a price range that leaves few products to walk is answered completely
+		assertEquals(List.of(both), ids(index.search("alpha beta", 50.0, null, 10)));
+	}
+
+	private void created(Long id, String name, double price) {
+		index.onProductChanged(new ProductChangedEvent(Type.CREATED, id, null, new Snapshot(name, price, 0)));
+	}
+
+	private static ProductChangedEvent updated(Long id, String name, double price, long version) {
+		return new ProductChangedEvent(Type.UPDATED, id, null, new Snapshot(name, price, version));
+	}
+
+	private static List<Long> ids(ProductSearchResult result) {
+		return result.getHits().stream().map(ProductSearchHit::getId).toList();
+	}
+
+}
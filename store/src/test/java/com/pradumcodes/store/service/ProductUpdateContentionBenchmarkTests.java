@@ -0,0 +1,133 @@
+package com.pradumcodes.store.service;
+
+import com.pradumcodes.store.entity.Product;
+import com.pradumcodes.store.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a handful of hot rows from several threads and compares the old read-modify-write update
+ * (findById + save) with the single conditional UPDATE of a client that knows the version, and with
+ * {@code If-Match: *} (row lock to read the version, then the UPDATE).
+ * Opt-in: ./mvnw test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProductUpdateContentionBenchmarkTests {
+
+	private static final int THREADS = 8;
+	private static final int HOT_ROWS = 4;
+	private static final int OPS_PER_THREAD = 2_000;
+
+	@Autowired
+	private ProductRepository repo;
+
+	@Autowired
+	private ProductService productService;
+
+	// per worker thread; every run uses a fresh pool, so each run starts without known versions
+	private final ThreadLocal<Map<Long, Long>> lastSeenVersions = ThreadLocal.withInitial(HashMap::new);
+
+	interface UpdateOp {
+		void apply(Long id, double price);
+	}
+
+	@Test
+	void conditionalUpdateVersusReadModifyWrite() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < HOT_ROWS; i++) {
+			ids.add(repo.save(new Product("hot " + i, 1)).getId());
+		}
+
+		UpdateOp readModifyWrite = (id, price) -> {
+			Product product = repo.findById(id).orElseThrow();
+			product.setPrice(price);
+			repo.save(product);
+		};
+		UpdateOp conditional = (id, price) -> {
+			// a client that keeps the ETag of its last response and only re-reads after a 412
+			Map<Long, Long> known = lastSeenVersions.get();
+			Long version = known.get(id);
+			while (true) {
+				if (version == null) {
+					version = repo.findById(id).orElseThrow().getVersion();
+				}
+				ProductUpdateResult result = productService.updateProduct(id, new Product("hot", price), version);
+				if (result.getStatus() == ProductUpdateResult.Status.UPDATED) {
+					known.put(id, result.getProduct().getVersion());
+					return;
+				}
+				version = null;
+			}
+		};
+		UpdateOp anyVersion = (id, price) ->
+				productService.updateProduct(id, new Product("hot", price), null);
+
+		run("warm-up", ids, conditional, OPS_PER_THREAD / 4);
+		System.out.printf("%-34s %10s %10s %10s%n", "strategy", "ops/s", "applied", "conflicts");
+		run("read-modify-write (findById+save)", ids, readModifyWrite, OPS_PER_THREAD);
+		run("conditional UPDATE, known version", ids, conditional, OPS_PER_THREAD);
+		run("If-Match: * (lock + UPDATE)", ids, anyVersion, OPS_PER_THREAD);
+	}
+
+	private void run(String name, List<Long> ids, UpdateOp op, int opsPerThread) throws Exception {
+		long versionsBefore = versionSum(ids);
+		AtomicLong applied = new AtomicLong();
+		AtomicLong conflicts = new AtomicLong();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				futures.add(pool.submit(() -> {
+					for (int i = 0; i < opsPerThread; i++) {
+						Long id = ids.get((thread + i) % ids.size());
+						try {
+							op.apply(id, thread * 1_000_000 + i);
+							applied.incrementAndGet();
+						} catch (OptimisticLockingFailureException ex) {
+							// before @Version this was a silently lost update
+							conflicts.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		if (!name.equals("warm-up")) {
+			System.out.printf("%-34s %10.0f %10d %10d%n", name,
+					(THREADS * (double) opsPerThread) / (elapsed / 1e9), applied.get(), conflicts.get());
+		}
+		// every applied update bumped the version exactly once: nothing was lost
+		assertEquals(applied.get(), versionSum(ids) - versionsBefore, name);
+	}
+
+	private long versionSum(List<Long> ids) {
+		return repo.findAllById(ids).stream().mapToLong(Product::getVersion).sum();
+	}
+
+}